@@ -1,5 +1,19 @@
 package app.array;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Array
  * 
@@ -18,12 +32,21 @@ package app.array;
  * 所以说，如果数组的索引有语义的情况下，改查的性能就会很高。
  * 而对于增删，虽然如果增删的动作如果都是最后一个元素的话，复杂度都是 O(1) 级别的，但是会有可能有数组容量的 resize 操作
  */
-public class Array<E> {
+public class Array<E> implements DynamicArray<E>, Iterable<E> {
+
+    // 区间小于这个长度的时候使用插入排序。
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    // 区间小于这个长度的时候不再拆分任务，直接在当前线程处理。
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
 
     // 使用一个静态数组来存放元素，也就是当前数组的容量。
     private E[] data;
     // 数组中存放元素的个数。
     private int size;
+    // 扩容和缩容的策略。
+    private GrowthPolicy growthPolicy = GrowthPolicy.doubling();
+    // 改变容量的次数。
+    private int resizeCount;
 
     /**
      * 构造函数。
@@ -36,6 +59,16 @@ public class Array<E> {
         size = 0;
     }
 
+    /**
+     * 指定扩容和缩容策略的构造函数。
+     * @param capacity 数组初始容量。
+     * @param growthPolicy 扩容和缩容的策略。
+     */
+    public Array(int capacity, GrowthPolicy growthPolicy) {
+        this(capacity);
+        setGrowthPolicy(growthPolicy);
+    }
+
     /**
      * 无需传入数组容量的构造函数。默认初始容量为 10。
      */
@@ -50,17 +83,47 @@ public class Array<E> {
     @SuppressWarnings("unchecked")
     public Array(E[] arr) {
         data = (E[])new Object[arr.length];
-        for (int i = 0; i < arr.length; i++) {
-            data[i] = arr[i];
-        }
+        System.arraycopy(arr, 0, data, 0, arr.length);
         size = arr.length;
     }
 
+    /**
+     * 获取扩容和缩容的策略。
+     * 
+     * @return 扩容和缩容的策略。
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    /**
+     * 设置扩容和缩容的策略，从下一次扩容或者缩容开始生效。
+     * 
+     * @param growthPolicy 扩容和缩容的策略。
+     */
+    public void setGrowthPolicy(GrowthPolicy growthPolicy) {
+        if (growthPolicy == null) {
+            throw new IllegalArgumentException("Growth policy can not be null.");
+        }
+        this.growthPolicy = growthPolicy;
+    }
+
+    /**
+     * 获取数组改变容量的次数。
+     * 
+     * @return 改变容量的次数。
+     */
+    @Override
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
     /**
      * 获取数组的容量。
      * 
      * @return 数组的容量。
      */
+    @Override
     public int getCapacity(){
         return data.length;
     }
@@ -70,6 +133,7 @@ public class Array<E> {
      * 
      * @return 数组中元素的个数。
      */
+    @Override
     public int getSize(){
         return size;
     }
@@ -79,6 +143,7 @@ public class Array<E> {
      * 
      * @return 数组是否为空。
      */
+    @Override
     public boolean isEmpty(){
         return size == 0;
     }
@@ -90,6 +155,7 @@ public class Array<E> {
      * @param index
      * @param e
      */
+    @Override
     public void add(int index, E e) {
 
         // 索引必须合法
@@ -100,20 +166,68 @@ public class Array<E> {
         // 如果数组已经满了，则无法添加新元素，抛出异常。
         if (size == data.length) {
 
-            // 修改后，如果数组已经满了，则不再抛出异常，而是容量翻倍。
-            resize(2 * data.length);
+            // 修改后，如果数组已经满了，则不再抛出异常，而是按照扩容策略扩容，默认是容量翻倍。
+            resize(growthPolicy.grow(data.length, size + 1));
             // throw new IllegalArgumentException("Add failed. Array is full.");
         }
 
-        // 将索引后面的元素依次向后挪动一个位置，应该从最后一个元素开始挪起。
-        for (int i = size - 1; i >= index; i--) {
-            data[i + 1] = data[i];
-        }
+        // 将索引后面的元素整体向后挪动一个位置。
+        // System.arraycopy 对于重叠的区间也能正确处理，相当于从最后一个元素开始挪起，而且是一次块拷贝，比逐个元素挪动快得多。
+        System.arraycopy(data, index, data, index + 1, size - index);
 
         data[index] = e;
         size++;
     }
 
+    /**
+     * 在指定索引一次性添加一组元素。
+     * 先把容量一次扩充到位，再把 index 之后的元素整体向后挪动 arr.length 个位置，最后把新元素整块拷贝进来。
+     * 相比逐个调用 add，只需要挪动一次后面的元素，时间复杂度 O(n + m)，m 为添加的元素个数。
+     * 
+     * @param index
+     * @param arr 添加的元素。
+     */
+    public void addAll(int index, E[] arr) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("AddAll failed. Require index >= 0 and index <= size.");
+        }
+
+        addAll(index, arr, arr.length);
+    }
+
+    /**
+     * 在指定索引一次性添加另一个动态数组中的全部元素。
+     * 
+     * @param index
+     * @param arr 添加的元素。
+     */
+    public void addAll(int index, Array<E> arr) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("AddAll failed. Require index >= 0 and index <= size.");
+        }
+
+        // 先取出 arr.size，这样 arr 就是自己的时候也能正确处理。
+        addAll(index, arr.data, arr.size);
+    }
+
+    private void addAll(int index, E[] src, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        ensureCapacity(size + count);
+
+        System.arraycopy(data, index, data, index + count, size - index);
+        // 如果 src 就是 data 本身，它后半部分刚刚已经被挪走了，需要分两段拷贝回来。
+        if (src == data) {
+            System.arraycopy(data, 0, data, index, index);
+            System.arraycopy(data, index + count, data, 2 * index, count - index);
+        } else {
+            System.arraycopy(src, 0, data, index, count);
+        }
+        size += count;
+    }
+
     /**
      *
      * 向数组末尾添加元素。
@@ -121,6 +235,7 @@ public class Array<E> {
      * 
      * @param e 元素。
      */
+    @Override
     public void addLast(E e) {
 
         // 尾部添加一个元素可以调用 add 方法。
@@ -139,6 +254,7 @@ public class Array<E> {
      * 
      * @param e 插入的元素。
      */
+    @Override
     public void addFirst(E e) {
         add(0, e);
     }
@@ -150,6 +266,7 @@ public class Array<E> {
      * @param index
      * @return
      */
+    @Override
     public E get(int index){
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Get failed. Index is illegal.");
@@ -162,6 +279,7 @@ public class Array<E> {
      * 获取数组最后一个元素。
      * @return
      */
+    @Override
     public E getLast() {
         return get(size - 1);
     }
@@ -170,6 +288,7 @@ public class Array<E> {
      * 获取数组第一个元素。
      * @return
      */
+    @Override
     public E getFirst() {
         return get(0);
     }
@@ -181,6 +300,7 @@ public class Array<E> {
      * @param index
      * @param e
      */
+    @Override
     public void set(int index, E e) {
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Set failed. Index is illegal.");
@@ -196,6 +316,7 @@ public class Array<E> {
      * @param e
      * @return
      */
+    @Override
     public boolean contains(E e) {
         for (int i = 0; i < size; i++) {
             if (data[i].equals(e)) {
@@ -212,6 +333,7 @@ public class Array<E> {
      * @param e
      * @return
      */
+    @Override
     public int find(E e) {
         for (int i = 0; i < size; i++) {
             if (data[i].equals(e)) {
@@ -228,6 +350,7 @@ public class Array<E> {
      * @param index
      * @return
      */
+    @Override
     public E remove(int index) {
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Remove failed. Index is Illegal.");
@@ -235,17 +358,14 @@ public class Array<E> {
 
         E ret = data[index];
 
-        for (int i = index + 1; i < size; i++) {
-            data[i - 1] = data[i];
-        }
+        // 将索引后面的元素整体向前挪动一个位置。
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
         size--;
         data[size] = null; // 可写可不写，写的话可以优化一点点内存。
 
-        // 缩容采取 lazy 的策略，元素变为 1/4 时再进行缩容。
+        // 默认的缩容策略采取 lazy 的策略，元素变为 1/4 时再进行缩容。
         // 这样的目的是防止复杂度震荡。
-        if (size == data.length / 4 && data.length / 2 != 0) {
-            resize(data.length / 2);
-        }
+        shrinkIfNeeded();
 
         return ret;
     }
@@ -256,6 +376,7 @@ public class Array<E> {
      * 
      * @return 删除的元素。
      */
+    @Override
     public E removeFirst() {
         return remove(0);
     }
@@ -266,15 +387,38 @@ public class Array<E> {
      * 
      * @return 删除的元素。
      */
+    @Override
     public E removeLast() {
         return remove(size - 1);
     }
 
+    /**
+     * 删除 [from, to) 区间内的所有元素。
+     * 后面的元素只需要整体挪动一次，时间复杂度 O(n)，而逐个调用 remove 是 O(n * (to - from))。
+     * 
+     * @param from 起始索引，包含。
+     * @param to 结束索引，不包含。
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IllegalArgumentException("RemoveRange failed. Require 0 <= from <= to <= size.");
+        }
+
+        System.arraycopy(data, to, data, from, size - to);
+        int newSize = size - (to - from);
+        // 将空出来的位置置空，防止内存泄漏。
+        Arrays.fill(data, newSize, size, null);
+        size = newSize;
+
+        shrinkIfNeeded();
+    }
+
     /**
      * 如果数组包含元素 e，则删除第一个 e。
      * 
      * @param e
      */
+    @Override
     public void removeElement(E e) {
         int index = find(e);
         if (index != -1) {
@@ -287,6 +431,7 @@ public class Array<E> {
      * @param i
      * @param j
      */
+    @Override
     public void swap(int i, int j) {
         if (i < 0 || i >= size || j < 0 || j >= size) {
             throw new IllegalArgumentException("Index is illegal.");
@@ -297,6 +442,163 @@ public class Array<E> {
         data[j] = t;
     }
 
+    /**
+     * 使用归并排序对数组中的元素排序。
+     * 归并排序是稳定的，相等的元素排序后保持原来的相对顺序。时间复杂度 O(nlogn)，需要 O(n) 的辅助空间。
+     * 
+     * @param comparator 比较器。
+     */
+    public void sort(Comparator<? super E> comparator) {
+        E[] aux = Arrays.copyOf(data, size);
+        mergeSort(data, aux, 0, size, comparator);
+    }
+
+    /**
+     * 使用 fork/join 并行的归并排序对数组中的元素排序。
+     * 左右两半分别交给公共线程池中的线程排序，然后再归并；区间足够小的时候直接顺序排序。
+     * 元素很多并且有多个 CPU 核心的时候比 sort 快，结果和 sort 完全相同。
+     * 
+     * @param comparator 比较器。
+     */
+    public void parallelSort(Comparator<? super E> comparator) {
+        E[] aux = Arrays.copyOf(data, size);
+        ForkJoinPool.commonPool().invoke(new MergeSortTask<>(data, aux, 0, size, comparator));
+    }
+
+    /**
+     * 在已经按照 comparator 排好序的数组中二分查找元素 e。
+     * 时间复杂度 O(logn)，而 find 是 O(n)。
+     * 
+     * @param e
+     * @param comparator 数组排序时使用的比较器。
+     * @return 第一个和 e 相等的元素的索引，如果不存在，则返回 -1。
+     */
+    public int binarySearch(E e, Comparator<? super E> comparator) {
+        // 在 [l, r) 中寻找第一个大于等于 e 的元素。
+        int l = 0, r = size;
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            if (comparator.compare(data[mid], e) < 0) {
+                l = mid + 1;
+            } else {
+                r = mid;
+            }
+        }
+
+        if (l < size && comparator.compare(data[l], e) == 0) {
+            return l;
+        }
+        return -1;
+    }
+
+    /**
+     * 将数组分成若干段，交给公共线程池并行地计算每一段的归约结果，最后再合并。
+     * op 必须满足结合律，identity 必须是 op 的单位元，比如求和时是 0。
+     * 
+     * @param identity 单位元。
+     * @param op 归约的操作。
+     * @return 归约的结果，数组为空时返回 identity。
+     */
+    public E parallelReduce(E identity, BinaryOperator<E> op) {
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(data, 0, size, identity, op));
+    }
+
+    /**
+     * 将数组分成若干段，交给公共线程池并行地对每个元素执行 action。
+     * 元素执行 action 的顺序是不确定的。
+     * 
+     * @param action
+     */
+    public void parallelForEach(Consumer<? super E> action) {
+        ForkJoinPool.commonPool().invoke(new ForEachTask<>(data, 0, size, action));
+    }
+
+    /**
+     * 返回按索引顺序遍历数组的迭代器。
+     * 迭代器直接访问底层的静态数组，不会像 get 那样每个元素都检查一次索引。
+     * 
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public E next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                return data[cursor++];
+            }
+        };
+    }
+
+    /**
+     * 返回可以拆分的迭代器，拆分时从中间一分为二，每一半的大小都是确定的，所以并行流可以均匀地分配任务。
+     * 
+     * @return
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ArraySpliterator<>(this, null, 0, -1);
+    }
+
+    /**
+     * 返回由数组中的元素组成的流。
+     * 
+     * @return
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 返回由数组中的元素组成的并行流。
+     * 
+     * @return
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * 保证数组的容量至少为 minCapacity。
+     * 如果事先知道要存放多少个元素，可以先调用这个方法一次性扩容，避免在添加元素的过程中一次次地翻倍扩容。
+     * 
+     * @param minCapacity 需要的最小容量。
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            // 交给扩容策略计算，默认至少也要翻倍，这样连续调用时依然能保证均摊复杂度。
+            resize(growthPolicy.grow(data.length, minCapacity));
+        }
+    }
+
+    /**
+     * 将数组的容量缩减为当前元素的个数，释放多余的空间。
+     */
+    public void trimToSize() {
+        if (size < data.length) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 按照缩容策略，在需要的时候缩容。
+     */
+    private void shrinkIfNeeded() {
+        int newCapacity = growthPolicy.shrink(data.length, size);
+        if (newCapacity < data.length) {
+            resize(newCapacity);
+        }
+    }
+
     /**
      * 改变数组容量。
      * 
@@ -318,10 +620,9 @@ public class Array<E> {
 
         E[] newData = (E[])new Object[newCapacity];
 
-        for (int i = 0; i < size; i++) {
-            newData[i] = data[i];
-        }
+        System.arraycopy(data, 0, newData, 0, size);
         data = newData;
+        resizeCount++;
     }
 
     @Override
@@ -338,4 +639,228 @@ public class Array<E> {
         res.append(']');
         return res.toString();
     }
+
+    /**
+     * 对 a[l, r) 进行归并排序，aux 是和 a 等长的辅助数组。
+     */
+    private static <E> void mergeSort(E[] a, E[] aux, int l, int r, Comparator<? super E> comparator) {
+        if (r - l <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, l, r, comparator);
+            return;
+        }
+
+        int mid = (l + r) >>> 1;
+        mergeSort(a, aux, l, mid, comparator);
+        mergeSort(a, aux, mid, r, comparator);
+        merge(a, aux, l, mid, r, comparator);
+    }
+
+    private static <E> void insertionSort(E[] a, int l, int r, Comparator<? super E> comparator) {
+        for (int i = l + 1; i < r; i++) {
+            E t = a[i];
+            int j = i;
+            for (; j > l && comparator.compare(a[j - 1], t) > 0; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = t;
+        }
+    }
+
+    /**
+     * 归并 a[l, mid) 和 a[mid, r) 两个有序的区间。
+     */
+    private static <E> void merge(E[] a, E[] aux, int l, int mid, int r, Comparator<? super E> comparator) {
+        // 如果两个区间本来就是有序的，就不需要归并了。
+        if (comparator.compare(a[mid - 1], a[mid]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(a, l, aux, l, r - l);
+        int i = l, j = mid;
+        for (int k = l; k < r; k++) {
+            if (i >= mid) {
+                a[k] = aux[j++];
+            } else if (j >= r) {
+                a[k] = aux[i++];
+            } else if (comparator.compare(aux[i], aux[j]) <= 0) {
+                a[k] = aux[i++];
+            } else {
+                a[k] = aux[j++];
+            }
+        }
+    }
+
+    private static class MergeSortTask<E> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final E[] a, aux;
+        private final int l, r;
+        private final Comparator<? super E> comparator;
+
+        MergeSortTask(E[] a, E[] aux, int l, int r, Comparator<? super E> comparator) {
+            this.a = a;
+            this.aux = aux;
+            this.l = l;
+            this.r = r;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= PARALLEL_THRESHOLD) {
+                mergeSort(a, aux, l, r, comparator);
+                return;
+            }
+
+            int mid = (l + r) >>> 1;
+            invokeAll(new MergeSortTask<>(a, aux, l, mid, comparator), new MergeSortTask<>(a, aux, mid, r, comparator));
+            merge(a, aux, l, mid, r, comparator);
+        }
+    }
+
+    private static class ReduceTask<E> extends RecursiveTask<E> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final E[] a;
+        private final int l, r;
+        private final E identity;
+        private final BinaryOperator<E> op;
+
+        ReduceTask(E[] a, int l, int r, E identity, BinaryOperator<E> op) {
+            this.a = a;
+            this.l = l;
+            this.r = r;
+            this.identity = identity;
+            this.op = op;
+        }
+
+        @Override
+        protected E compute() {
+            if (r - l <= PARALLEL_THRESHOLD) {
+                E res = identity;
+                for (int i = l; i < r; i++) {
+                    res = op.apply(res, a[i]);
+                }
+                return res;
+            }
+
+            int mid = (l + r) >>> 1;
+            ReduceTask<E> left = new ReduceTask<>(a, l, mid, identity, op);
+            left.fork();
+            E right = new ReduceTask<>(a, mid, r, identity, op).compute();
+            return op.apply(left.join(), right);
+        }
+    }
+
+    private static class ForEachTask<E> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final E[] a;
+        private final int l, r;
+        private final Consumer<? super E> action;
+
+        ForEachTask(E[] a, int l, int r, Consumer<? super E> action) {
+            this.a = a;
+            this.l = l;
+            this.r = r;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= PARALLEL_THRESHOLD) {
+                for (int i = l; i < r; i++) {
+                    action.accept(a[i]);
+                }
+                return;
+            }
+
+            int mid = (l + r) >>> 1;
+            invokeAll(new ForEachTask<>(a, l, mid, action), new ForEachTask<>(a, mid, r, action));
+        }
+    }
+
+    /**
+     * 遍历 array 中 [index, fence) 区间的 Spliterator。
+     * fence 为 -1 表示还没有开始遍历，第一次使用时才确定底层数组和区间的终点，
+     * 这样在创建 Spliterator 之后、开始遍历之前对数组的修改也能被看到。
+     */
+    private static class ArraySpliterator<E> implements Spliterator<E> {
+
+        private final Array<E> array;
+        private E[] data;
+        private int index;
+        private int fence;
+
+        ArraySpliterator(Array<E> array, E[] data, int origin, int fence) {
+            this.array = array;
+            this.data = data;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                data = array.data;
+                fence = array.size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ArraySpliterator<>(array, data, lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            int hi = getFence();
+            if (index < hi) {
+                action.accept(data[index++]);
+                checkModification();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            int hi = getFence();
+            E[] a = data;
+            for (int i = index; i < hi; i++) {
+                action.accept(a[i]);
+            }
+            index = hi;
+            checkModification();
+        }
+
+        /**
+         * 遍历的过程中如果数组被扩容或者缩容，底层数组会被替换，此时遍历的结果是不可靠的。
+         */
+        private void checkModification() {
+            if (data != array.data) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package app.array;
+
+/**
+ * DoubleArray
+ *
+ * Array<E> 底层是一个 Object[]，存放 double 的时候每个元素都要装箱成 Double，取出的时候再拆箱。
+ * 这样每个元素都是一个单独的对象，数组里存的只是引用，遍历的时候需要顺着引用去访问堆上的对象。
+ *
+ * DoubleArray 是专门存放 double 的动态数组，底层直接使用 double[]，接口和 Array 保持一致。
+ * 元素连续地存放在数组中，没有额外的对象分配，遍历时是顺序的内存访问。
+ *
+ * 时间复杂度和 Array 相同：
+ * 增 O(n)
+ * 删 O(n)
+ * 改 已知索引 O(1) 未知索引O(n)
+ * 查 已知索引 O(1) 未知索引O(n)
+ */
+public class DoubleArray {
+
+    private double[] data;
+    private int size;
+
+    /**
+     * 构造函数。
+     * @param capacity 数组初始容量。
+     */
+    public DoubleArray(int capacity) {
+        data = new double[capacity];
+        size = 0;
+    }
+
+    /**
+     * 无需传入数组容量的构造函数。默认初始容量为 10。
+     */
+    public DoubleArray() {
+        this(10);
+    }
+
+    /**
+     * 通过一个静态数组构造动态数组。
+     * @param arr 静态数组。
+     */
+    public DoubleArray(double[] arr) {
+        data = new double[arr.length];
+        System.arraycopy(arr, 0, data, 0, arr.length);
+        size = arr.length;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在指定索引添加一个元素。
+     * @param index
+     * @param e
+     */
+    public void add(int index, double e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+
+        if (size == data.length) {
+            resize(2 * data.length);
+        }
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        data[index] = e;
+        size++;
+    }
+
+    public void addLast(double e) {
+        add(size, e);
+    }
+
+    public void addFirst(double e) {
+        add(0, e);
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return data[index];
+    }
+
+    public double getLast() {
+        return get(size - 1);
+    }
+
+    public double getFirst() {
+        return get(0);
+    }
+
+    public void set(int index, double e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        data[index] = e;
+    }
+
+    /**
+     * 查找数组中是否包含某个元素。
+     * 直接使用 == 比较数值，不再需要调用 equals。注意和 Double.equals 不同，NaN 永远查找不到，0.0 和 -0.0 被认为相等。
+     * @param e
+     * @return
+     */
+    public boolean contains(double e) {
+        return find(e) != -1;
+    }
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * @param e
+     * @return
+     */
+    public int find(double e) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从数组中删除指定索引的元素，并将其返回。
+     * @param index
+     * @return
+     */
+    public double remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Index is Illegal.");
+        }
+
+        double ret = data[index];
+
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+
+        // 和 Array 一样，缩容采取 lazy 的策略。基本类型数组不持有引用，因此不需要把空出来的位置置空。
+        if (size == data.length / 4 && data.length / 2 != 0) {
+            resize(data.length / 2);
+        }
+
+        return ret;
+    }
+
+    public double removeFirst() {
+        return remove(0);
+    }
+
+    public double removeLast() {
+        return remove(size - 1);
+    }
+
+    public void removeElement(double e) {
+        int index = find(e);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    public void swap(int i, int j) {
+        if (i < 0 || i >= size || j < 0 || j >= size) {
+            throw new IllegalArgumentException("Index is illegal.");
+        }
+
+        double t = data[i];
+        data[i] = data[j];
+        data[j] = t;
+    }
+
+    private void resize(int newCapacity) {
+
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        double[] newData = new double[newCapacity];
+
+        System.arraycopy(data, 0, newData, 0, size);
+        data = newData;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("DoubleArray: size = %d, capacity = %d\n", size, data.length));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(data[i]);
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package app.array;
+
+/**
+ * DynamicArray
+ * 动态数组。
+ *
+ * 动态数组在底层可以有不同的实现方式，比如 Array 使用一整块静态数组，容量不够时整体拷贝到一个更大的静态数组中；
+ * SegmentedArray 则使用多个固定大小的块，容量不够时只需要再添加一个块。
+ * 和栈、队列一样，对于「动态数组」我们定义为接口，栈、队列、堆等基于动态数组的数据结构就可以选择底层使用哪种实现。
+ */
+public interface DynamicArray<E> {
+
+    /**
+     * 获取数组的容量。
+     * @return 数组的容量。
+     */
+    int getCapacity();
+
+    /**
+     * 获取数组改变容量的次数。
+     * @return 改变容量的次数。
+     */
+    int getResizeCount();
+
+    /**
+     * 获取数组中元素的个数。
+     * @return 数组中元素的个数。
+     */
+    int getSize();
+
+    /**
+     * 数组是否为空。
+     * @return 数组是否为空。
+     */
+    boolean isEmpty();
+
+    /**
+     * 在指定索引添加一个元素。
+     * @param index
+     * @param e
+     */
+    void add(int index, E e);
+
+    void addLast(E e);
+
+    void addFirst(E e);
+
+    /**
+     * 获取指定索引的元素。
+     * @param index
+     * @return
+     */
+    E get(int index);
+
+    E getLast();
+
+    E getFirst();
+
+    /**
+     * 修改指定索引的元素。
+     * @param index
+     * @param e
+     */
+    void set(int index, E e);
+
+    boolean contains(E e);
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * @param e
+     * @return
+     */
+    int find(E e);
+
+    /**
+     * 从数组中删除指定索引的元素，并将其返回。
+     * @param index
+     * @return
+     */
+    E remove(int index);
+
+    E removeFirst();
+
+    E removeLast();
+
+    void removeElement(E e);
+
+    /**
+     * 交换数组中指定两个索引的元素。
+     * @param i
+     * @param j
+     */
+    void swap(int i, int j);
+}
@@ -0,0 +1,92 @@
+package app.array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ElementCodec
+ * 元素的编解码器，负责把一个元素写成固定长度的字节，或者从字节中读出一个元素。
+ *
+ * MappedArray 把元素直接存放在文件映射的内存中，每个元素占用相同的字节数，
+ * 这样索引为 index 的元素就在 index * getWidth() 的位置，读写依然是 O(1) 的。
+ */
+public interface ElementCodec<E> {
+
+    /**
+     * 每个元素占用的字节数。
+     * @return
+     */
+    int getWidth();
+
+    /**
+     * 把元素 e 写入 buffer 中从 offset 开始的 getWidth() 个字节。
+     * @param buffer
+     * @param offset
+     * @param e
+     */
+    void encode(ByteBuffer buffer, int offset, E e);
+
+    /**
+     * 从 buffer 中从 offset 开始的 getWidth() 个字节读出一个元素。
+     * @param buffer
+     * @param offset
+     * @return
+     */
+    E decode(ByteBuffer buffer, int offset);
+
+    static ElementCodec<Integer> intCodec() {
+        return new ElementCodec<Integer>() {
+            @Override
+            public int getWidth() {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void encode(ByteBuffer buffer, int offset, Integer e) {
+                buffer.putInt(offset, e);
+            }
+
+            @Override
+            public Integer decode(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+    }
+
+    static ElementCodec<Long> longCodec() {
+        return new ElementCodec<Long>() {
+            @Override
+            public int getWidth() {
+                return Long.BYTES;
+            }
+
+            @Override
+            public void encode(ByteBuffer buffer, int offset, Long e) {
+                buffer.putLong(offset, e);
+            }
+
+            @Override
+            public Long decode(ByteBuffer buffer, int offset) {
+                return buffer.getLong(offset);
+            }
+        };
+    }
+
+    static ElementCodec<Double> doubleCodec() {
+        return new ElementCodec<Double>() {
+            @Override
+            public int getWidth() {
+                return Double.BYTES;
+            }
+
+            @Override
+            public void encode(ByteBuffer buffer, int offset, Double e) {
+                buffer.putDouble(offset, e);
+            }
+
+            @Override
+            public Double decode(ByteBuffer buffer, int offset) {
+                return buffer.getDouble(offset);
+            }
+        };
+    }
+}
@@ -0,0 +1,288 @@
+package app.array;
+
+import java.util.Arrays;
+
+/**
+ * GapArray
+ * 间隙缓冲区（gap buffer）实现的动态数组。
+ *
+ * 在 Array 中间添加或者删除一个元素，后面的所有元素都需要挪动一个位置，复杂度是 O(n)。
+ * 但是在编辑器这样的场景中，添加和删除往往集中在光标附近，光标每次只移动一小段距离。
+ *
+ * GapArray 在底层的静态数组中保留一段空闲的位置，也就是「间隙」，间隙总是停留在上一次编辑的位置：
+ *
+ *   [a, b, c, _, _, _, _, d, e]
+ *             ^           ^
+ *          gapStart     gapEnd
+ *
+ * 在间隙的位置添加元素只需要填入间隙的第一个位置，删除元素只需要把间隙扩大一格，都是 O(1) 的。
+ * 在其他位置编辑时，先把间隙移动过去，需要挪动的元素个数就是移动的距离。
+ * 所以在同一个位置附近反复编辑，均摊复杂度是 O(1) 的。
+ *
+ * 时间复杂度：
+ * 增、删 O(编辑位置和上一次编辑位置的距离)，最坏 O(n)
+ * 改 已知索引 O(1) 未知索引O(n)
+ * 查 已知索引 O(1) 未知索引O(n)
+ */
+public class GapArray<E> implements DynamicArray<E> {
+
+    // 静态数组，其中 [gapStart, gapEnd) 是间隙。
+    private E[] data;
+    private int gapStart;
+    private int gapEnd;
+    // 扩容和缩容的策略。
+    private GrowthPolicy growthPolicy = GrowthPolicy.doubling();
+    // 改变容量的次数。
+    private int resizeCount;
+
+    /**
+     * 构造函数。
+     * @param capacity 数组初始容量。
+     */
+    @SuppressWarnings("unchecked")
+    public GapArray(int capacity) {
+        data = (E[]) new Object[capacity];
+        gapStart = 0;
+        gapEnd = capacity;
+    }
+
+    public GapArray() {
+        this(10);
+    }
+
+    public GapArray(int capacity, GrowthPolicy growthPolicy) {
+        this(capacity);
+        if (growthPolicy == null) {
+            throw new IllegalArgumentException("Growth policy can not be null.");
+        }
+        this.growthPolicy = growthPolicy;
+    }
+
+    @Override
+    public int getCapacity() {
+        return data.length;
+    }
+
+    @Override
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public int getSize() {
+        return data.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    /**
+     * 获取间隙当前所在的索引，也就是上一次编辑的位置。
+     * 在这个位置添加或者删除元素是 O(1) 的。
+     * @return
+     */
+    public int getGapPosition() {
+        return gapStart;
+    }
+
+    /**
+     * 在指定索引添加一个元素。
+     * 先把间隙移动到 index，再填入间隙的第一个位置。
+     * @param index
+     * @param e
+     */
+    @Override
+    public void add(int index, E e) {
+        if (index < 0 || index > getSize()) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+
+        if (gapStart == gapEnd) {
+            resize(growthPolicy.grow(data.length, data.length + 1));
+        }
+
+        moveGap(index);
+        data[gapStart++] = e;
+    }
+
+    @Override
+    public void addLast(E e) {
+        add(getSize(), e);
+    }
+
+    @Override
+    public void addFirst(E e) {
+        add(0, e);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= getSize()) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return data[physicalIndex(index)];
+    }
+
+    @Override
+    public E getLast() {
+        return get(getSize() - 1);
+    }
+
+    @Override
+    public E getFirst() {
+        return get(0);
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= getSize()) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        data[physicalIndex(index)] = e;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return find(e) != -1;
+    }
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * 分别遍历间隙前后的两段。
+     */
+    @Override
+    public int find(E e) {
+        for (int i = 0; i < gapStart; i++) {
+            if (data[i].equals(e)) {
+                return i;
+            }
+        }
+        for (int i = gapEnd; i < data.length; i++) {
+            if (data[i].equals(e)) {
+                return i - (gapEnd - gapStart);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从数组中删除指定索引的元素，并将其返回。
+     * 先把间隙移动到 index，此时要删除的元素紧跟在间隙后面，把间隙扩大一格即可。
+     */
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= getSize()) {
+            throw new IllegalArgumentException("Remove failed. Index is Illegal.");
+        }
+
+        moveGap(index);
+        E ret = data[gapEnd];
+        data[gapEnd++] = null;
+
+        int newCapacity = growthPolicy.shrink(data.length, getSize());
+        if (newCapacity < data.length) {
+            resize(newCapacity);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public E removeFirst() {
+        return remove(0);
+    }
+
+    @Override
+    public E removeLast() {
+        return remove(getSize() - 1);
+    }
+
+    @Override
+    public void removeElement(E e) {
+        int index = find(e);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        if (i < 0 || i >= getSize() || j < 0 || j >= getSize()) {
+            throw new IllegalArgumentException("Index is illegal.");
+        }
+
+        int pi = physicalIndex(i);
+        int pj = physicalIndex(j);
+        E t = data[pi];
+        data[pi] = data[pj];
+        data[pj] = t;
+    }
+
+    /**
+     * 逻辑索引对应的静态数组中的索引，间隙后面的元素需要跳过间隙。
+     */
+    private int physicalIndex(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    /**
+     * 把间隙移动到 pos，需要挪动的元素个数是 |pos - gapStart|。
+     * 挪动之后，只把腾出来的位置置空，而不是整个间隙，这样移动的代价只和移动的距离有关。
+     */
+    private void moveGap(int pos) {
+        int gapLength = gapEnd - gapStart;
+
+        if (pos < gapStart) {
+            // 间隙向左移动，[pos, gapStart) 中的元素挪到间隙的右边。
+            int count = gapStart - pos;
+            System.arraycopy(data, pos, data, pos + gapLength, count);
+            Arrays.fill(data, pos, Math.min(gapStart, pos + gapLength), null);
+        } else if (pos > gapStart) {
+            // 间隙向右移动，间隙右边的 count 个元素挪到间隙的左边。
+            int count = pos - gapStart;
+            System.arraycopy(data, gapEnd, data, gapStart, count);
+            Arrays.fill(data, Math.max(gapEnd, gapStart + count), gapEnd + count, null);
+        }
+
+        gapStart = pos;
+        gapEnd = pos + gapLength;
+    }
+
+    /**
+     * 改变容量，间隙前后的两段分别拷贝到新数组的开头和末尾，间隙的位置不变。
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int newCapacity) {
+        int tailLength = data.length - gapEnd;
+        if (newCapacity < gapStart + tailLength) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        E[] newData = (E[]) new Object[newCapacity];
+        System.arraycopy(data, 0, newData, 0, gapStart);
+        System.arraycopy(data, gapEnd, newData, newCapacity - tailLength, tailLength);
+        data = newData;
+        gapEnd = newCapacity - tailLength;
+        resizeCount++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        int size = getSize();
+        res.append(String.format("GapArray: size = %d, capacity = %d, gap = %d\n", size, data.length, gapStart));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(data[physicalIndex(i)]);
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package app.array;
+
+/**
+ * GrowthPolicy
+ * 扩容和缩容策略。
+ *
+ * 动态数组默认的策略是容量满了就翻倍，元素个数减少到容量的 1/4 时容量减半。
+ * 但是这个策略并不是对所有场景都合适：
+ * 1. 对于内存比较紧张的场景，翻倍扩容最多会浪费一半的空间，可以使用 1.5 倍或者固定步长扩容。
+ * 2. 对于元素个数频繁大起大落的队列，缩容之后很快又要扩容，反复分配内存，这时可以不缩容，或者把缩容的阈值设得更低一些。
+ *
+ * 所以把扩容和缩容的策略抽象为一个接口，由动态数组、循环队列等结构在需要扩容或者缩容的时候调用。
+ */
+public interface GrowthPolicy {
+
+    /**
+     * 计算扩容后的容量。
+     * @param capacity 当前的容量。
+     * @param minCapacity 至少需要的容量。
+     * @return 扩容后的容量，必须大于等于 minCapacity。
+     */
+    int grow(int capacity, int minCapacity);
+
+    /**
+     * 计算缩容后的容量。
+     * @param capacity 当前的容量。
+     * @param size 当前元素的个数。
+     * @return 缩容后的容量，必须大于等于 size。如果不需要缩容，返回 capacity 本身。
+     */
+    int shrink(int capacity, int size);
+
+    /**
+     * 默认策略：容量翻倍，元素个数减少到容量的 1/4 时容量减半。
+     * @return
+     */
+    static GrowthPolicy doubling() {
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return Math.max(minCapacity, 2 * capacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                // 缩容采取 lazy 的策略，元素变为 1/4 时再进行缩容，防止复杂度震荡。
+                if (size <= capacity / 4 && capacity / 2 != 0) {
+                    return capacity / 2;
+                }
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "doubling";
+            }
+        };
+    }
+
+    /**
+     * 容量扩充为原来的 1.5 倍，元素个数减少到容量的 1/4 时容量减半。
+     * 扩容之后最多浪费 1/3 的空间，代价是扩容的次数会多一些。
+     * @return
+     */
+    static GrowthPolicy oneAndHalf() {
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                // 容量很小的时候 1.5 倍可能还是原来的容量，所以至少加 1。
+                return Math.max(minCapacity, capacity + Math.max(1, capacity >> 1));
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (size <= capacity / 4 && capacity / 2 != 0) {
+                    return capacity / 2;
+                }
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "oneAndHalf";
+            }
+        };
+    }
+
+    /**
+     * 每次扩容固定增加 step 个空间，空闲的空间达到 2 * step 时减少 step 个空间。
+     * 浪费的空间不会超过 2 * step，但是扩容的次数和元素个数成正比，均摊复杂度不再是 O(1)。
+     * @param step 步长。
+     * @return
+     */
+    static GrowthPolicy fixedStep(int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive.");
+        }
+
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return Math.max(minCapacity, capacity + step);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                // 留出一个 step 的空闲作为缓冲，防止在边界上反复扩容缩容。
+                if (capacity - size >= 2 * step) {
+                    return capacity - step;
+                }
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "fixedStep(" + step + ")";
+            }
+        };
+    }
+
+    /**
+     * 按照 growth 的策略扩容，但是从不缩容。
+     * @param growth 扩容策略。
+     * @return
+     */
+    static GrowthPolicy neverShrink(GrowthPolicy growth) {
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return growth.grow(capacity, minCapacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "neverShrink(" + growth + ")";
+            }
+        };
+    }
+
+    /**
+     * 容量翻倍，从不缩容。
+     * @return
+     */
+    static GrowthPolicy neverShrink() {
+        return neverShrink(doubling());
+    }
+
+    /**
+     * 按照 growth 的策略扩容，元素个数减少到容量的 lowWatermark 以下时容量减半。
+     *
+     * 缩容之后元素个数占容量的比例最多是 2 * lowWatermark，离下一次缩容的阈值始终有一段距离，这就是滞后（hysteresis）。
+     * lowWatermark 越低，缩容越不频繁。为了保证缩容之后不会马上又需要扩容，lowWatermark 必须小于 0.5。
+     *
+     * @param growth 扩容策略。
+     * @param lowWatermark 缩容的阈值，范围 (0, 0.5)。
+     * @return
+     */
+    static GrowthPolicy hysteresis(GrowthPolicy growth, double lowWatermark) {
+        if (!(lowWatermark > 0 && lowWatermark < 0.5)) {
+            throw new IllegalArgumentException("Low watermark must be in (0, 0.5).");
+        }
+
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int minCapacity) {
+                return growth.grow(capacity, minCapacity);
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (size <= capacity * lowWatermark && capacity / 2 != 0) {
+                    return capacity / 2;
+                }
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "hysteresis(" + growth + ", " + lowWatermark + ")";
+            }
+        };
+    }
+
+    /**
+     * 容量翻倍，元素个数减少到容量的 lowWatermark 以下时容量减半。
+     * @param lowWatermark 缩容的阈值，范围 (0, 0.5)。
+     * @return
+     */
+    static GrowthPolicy hysteresis(double lowWatermark) {
+        return hysteresis(doubling(), lowWatermark);
+    }
+}
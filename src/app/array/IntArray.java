@@ -0,0 +1,345 @@
+package app.array;
+
+/**
+ * IntArray
+ *
+ * Array<E> 底层是一个 Object[]，存放 int 的时候每个元素都要装箱成 Integer，取出的时候再拆箱。
+ * 这样每个元素都是一个单独的对象，数组里存的只是引用，遍历的时候需要顺着引用去访问堆上的对象。
+ *
+ * IntArray 是专门存放 int 的动态数组，底层直接使用 int[]，接口和 Array 保持一致。
+ * 元素连续地存放在数组中，没有额外的对象分配，遍历时是顺序的内存访问。
+ *
+ * 对于数值数据，还提供了一组扫描整个数组的计算：indexOf、count、min、max、sum、histogram。
+ * 它们直接扫描 int[]，循环写成 HotSpot 的 C2 编译器能够自动向量化（使用 SIMD 指令）或者充分流水线化的形式：
+ * 没有分支的计数、多个独立的累加器、用移位代替除法，扫描的速度接近内存带宽。
+ *
+ * 时间复杂度和 Array 相同：
+ * 增 O(n)
+ * 删 O(n)
+ * 改 已知索引 O(1) 未知索引O(n)
+ * 查 已知索引 O(1) 未知索引O(n)
+ */
+public class IntArray {
+
+    private int[] data;
+    private int size;
+
+    /**
+     * 构造函数。
+     * @param capacity 数组初始容量。
+     */
+    public IntArray(int capacity) {
+        data = new int[capacity];
+        size = 0;
+    }
+
+    /**
+     * 无需传入数组容量的构造函数。默认初始容量为 10。
+     */
+    public IntArray() {
+        this(10);
+    }
+
+    /**
+     * 通过一个静态数组构造动态数组。
+     * @param arr 静态数组。
+     */
+    public IntArray(int[] arr) {
+        data = new int[arr.length];
+        System.arraycopy(arr, 0, data, 0, arr.length);
+        size = arr.length;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在指定索引添加一个元素。
+     * @param index
+     * @param e
+     */
+    public void add(int index, int e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+
+        if (size == data.length) {
+            resize(2 * data.length);
+        }
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+
+        data[index] = e;
+        size++;
+    }
+
+    public void addLast(int e) {
+        add(size, e);
+    }
+
+    public void addFirst(int e) {
+        add(0, e);
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return data[index];
+    }
+
+    public int getLast() {
+        return get(size - 1);
+    }
+
+    public int getFirst() {
+        return get(0);
+    }
+
+    public void set(int index, int e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        data[index] = e;
+    }
+
+    /**
+     * 查找数组中是否包含某个元素。
+     * 直接比较数值，不再需要调用 equals。
+     * @param e
+     * @return
+     */
+    public boolean contains(int e) {
+        return find(e) != -1;
+    }
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * @param e
+     * @return
+     */
+    public int find(int e) {
+        return indexOf(e);
+    }
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * 和 find 相同。对 int[] 逐个比较、找到就返回的循环已经只受内存带宽限制，
+     * 尝试过每次比较一组元素再合并结果的写法，反而更慢，所以这里保持最简单的循环。
+     * @param e
+     * @return
+     */
+    public int indexOf(int e) {
+        int[] a = data;
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            if (a[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 统计数组中在 [lo, hi] 区间的元素个数。
+     * 把两次比较合并为一次无符号比较：lo <= v <= hi 等价于无符号的 v - lo <= hi - lo。
+     * @param lo
+     * @param hi
+     * @return
+     */
+    public int count(int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+
+        int[] a = data;
+        // 加上 Integer.MIN_VALUE 把无符号比较转换为有符号比较。
+        int range = (hi - lo) + Integer.MIN_VALUE;
+        int c = 0;
+        for (int i = 0; i < size; i++) {
+            c += (a[i] - lo) + Integer.MIN_VALUE <= range ? 1 : 0;
+        }
+        return c;
+    }
+
+    /**
+     * 数组中的最小值。
+     * @return
+     */
+    public int min() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get min when array is empty.");
+        }
+
+        int[] a = data;
+        int n = size;
+        // 使用 4 个独立的累加器，相邻的迭代之间没有依赖，便于流水线和向量化。
+        int m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            m0 = Math.min(m0, a[i]);
+            m1 = Math.min(m1, a[i + 1]);
+            m2 = Math.min(m2, a[i + 2]);
+            m3 = Math.min(m3, a[i + 3]);
+        }
+        for (; i < n; i++) {
+            m0 = Math.min(m0, a[i]);
+        }
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    /**
+     * 数组中的最大值。
+     * @return
+     */
+    public int max() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get max when array is empty.");
+        }
+
+        int[] a = data;
+        int n = size;
+        int m0 = a[0], m1 = a[0], m2 = a[0], m3 = a[0];
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            m0 = Math.max(m0, a[i]);
+            m1 = Math.max(m1, a[i + 1]);
+            m2 = Math.max(m2, a[i + 2]);
+            m3 = Math.max(m3, a[i + 3]);
+        }
+        for (; i < n; i++) {
+            m0 = Math.max(m0, a[i]);
+        }
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    /**
+     * 数组中所有元素的和，使用 long 累加，不会溢出。
+     * @return
+     */
+    public long sum() {
+        // 这种最简单的累加循环 C2 可以直接向量化，拆成多个累加器反而会妨碍向量化。
+        int[] a = data;
+        int n = size;
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 统计直方图：把 [lo, hi) 平均分成 buckets 个桶，统计每个桶中元素的个数，不在区间中的元素被忽略。
+     * @param lo
+     * @param hi
+     * @param buckets 桶的个数。
+     * @return 每个桶中元素的个数。
+     */
+    public int[] histogram(int lo, int hi, int buckets) {
+        if (lo >= hi || buckets <= 0) {
+            throw new IllegalArgumentException("Histogram failed. Require lo < hi and buckets > 0.");
+        }
+
+        int[] counts = new int[buckets];
+        int[] a = data;
+        long range = (long) hi - lo;
+        // 每个桶的宽度，向上取整。
+        long width = (range + buckets - 1) / buckets;
+        // 宽度是 2 的幂的时候用移位代替除法。
+        boolean isPowerOfTwo = (width & (width - 1)) == 0;
+        int shift = Long.numberOfTrailingZeros(width);
+        for (int i = 0; i < size; i++) {
+            long offset = (long) a[i] - lo;
+            if (offset >= 0 && offset < range) {
+                counts[(int) (isPowerOfTwo ? offset >>> shift : offset / width)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 从数组中删除指定索引的元素，并将其返回。
+     * @param index
+     * @return
+     */
+    public int remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Index is Illegal.");
+        }
+
+        int ret = data[index];
+
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+
+        // 和 Array 一样，缩容采取 lazy 的策略。基本类型数组不持有引用，因此不需要把空出来的位置置空。
+        if (size == data.length / 4 && data.length / 2 != 0) {
+            resize(data.length / 2);
+        }
+
+        return ret;
+    }
+
+    public int removeFirst() {
+        return remove(0);
+    }
+
+    public int removeLast() {
+        return remove(size - 1);
+    }
+
+    public void removeElement(int e) {
+        int index = find(e);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    public void swap(int i, int j) {
+        if (i < 0 || i >= size || j < 0 || j >= size) {
+            throw new IllegalArgumentException("Index is illegal.");
+        }
+
+        int t = data[i];
+        data[i] = data[j];
+        data[j] = t;
+    }
+
+    private void resize(int newCapacity) {
+
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        int[] newData = new int[newCapacity];
+
+        System.arraycopy(data, 0, newData, 0, size);
+        data = newData;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("IntArray: size = %d, capacity = %d\n", size, data.length));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(data[i]);
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
@@ -1,13 +1,32 @@
 package app.array;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
 /**
  * Main
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        test1();
+        test2();
+        test3();
+        test4();
+        test5();
+        test6();
+        test7();
+        test8();
+        test9();
+    }
+
+    private static void test1() {
         Array<Integer> arr = new Array<>();
-        
+
         for (int i = 0; i < 10; i++) {
             arr.addLast(i);
         }
@@ -33,4 +52,517 @@ public class Main {
             System.out.println(arr);
         }
     }
-}
\ No newline at end of file
+
+    private static void test2() {
+        // 对比泛型数组和基本类型数组的性能差异。
+        // 泛型数组每个元素都要装箱，查找时需要顺着引用访问堆上的对象并调用 equals。
+        int n = 10_000_000;
+
+        System.out.println("Array<Integer>, " + testArray(n));
+        System.out.println("IntArray, " + testIntArray(n));
+        System.out.println("Array<Long>, " + testLongBoxedArray(n));
+        System.out.println("LongArray, " + testLongArray(n));
+        System.out.println("Array<Double>, " + testDoubleBoxedArray(n));
+        System.out.println("DoubleArray, " + testDoubleArray(n));
+    }
+
+    /**
+     * 分别测试填充 n 个元素、查找一个不存在的元素（完整扫描一遍）、从尾部删除全部元素的时间，单位：秒
+     * @param n
+     * @return
+     */
+    private static String testArray(int n) {
+        Array<Integer> arr = new Array<>();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast(i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static String testIntArray(int n) {
+        IntArray arr = new IntArray();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast(i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static String testLongBoxedArray(int n) {
+        Array<Long> arr = new Array<>();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast((long) i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1L);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static String testLongArray(int n) {
+        LongArray arr = new LongArray();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast(i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1L);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static String testDoubleBoxedArray(int n) {
+        Array<Double> arr = new Array<>();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast((double) i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1.0);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static String testDoubleArray(int n) {
+        DoubleArray arr = new DoubleArray();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.addLast(i);
+        }
+        long t1 = System.nanoTime();
+        arr.find(-1.0);
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            arr.removeLast();
+        }
+        long t3 = System.nanoTime();
+
+        return format(t0, t1, t2, t3);
+    }
+
+    private static void test3() throws IOException {
+        // 文件映射的数组，重新打开时不需要重新构建，耗时和元素个数无关。
+        int n = 10_000_000;
+        Path file = Files.createTempFile("mapped-array", ".bin");
+
+        try {
+            long t0 = System.nanoTime();
+            try (MappedArray<Integer> arr = new MappedArray<>(file, ElementCodec.intCodec())) {
+                for (int i = 0; i < n; i++) {
+                    arr.addLast(i);
+                }
+            }
+            long t1 = System.nanoTime();
+            try (MappedArray<Integer> arr = new MappedArray<>(file, ElementCodec.intCodec())) {
+                long t2 = System.nanoTime();
+                System.out.println("MappedArray, build: " + (t1 - t0) / 1_000_000_000.0 + "s, reopen: "
+                        + (t2 - t1) / 1_000_000_000.0 + "s, size: " + arr.getSize() + ", last: " + arr.getLast());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void test4() {
+        // 对比顺序和并行的排序、归约，以及排好序之后二分查找和线性查找的差异。
+        int n = 10_000_000;
+        Random random = new Random();
+        Integer[] testData = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            testData[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+        System.out.println("Processors: " + Runtime.getRuntime().availableProcessors());
+
+        Array<Integer> arr1 = new Array<>(testData);
+        long t0 = System.nanoTime();
+        arr1.sort(Comparator.naturalOrder());
+        long t1 = System.nanoTime();
+        System.out.println("sort: " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        Array<Integer> arr2 = new Array<>(testData);
+        t0 = System.nanoTime();
+        arr2.parallelSort(Comparator.naturalOrder());
+        t1 = System.nanoTime();
+        System.out.println("parallelSort: " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        for (int i = 0; i < n; i++) {
+            if (!arr1.get(i).equals(arr2.get(i))) {
+                throw new IllegalArgumentException("Error");
+            }
+        }
+
+        t0 = System.nanoTime();
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            max = Math.max(max, arr2.get(i));
+        }
+        t1 = System.nanoTime();
+        System.out.println("sequential reduce: " + (t1 - t0) / 1_000_000_000.0 + "s, max: " + max);
+
+        t0 = System.nanoTime();
+        Integer parallelMax = arr2.parallelReduce(Integer.MIN_VALUE, Math::max);
+        t1 = System.nanoTime();
+        System.out.println("parallelReduce: " + (t1 - t0) / 1_000_000_000.0 + "s, max: " + parallelMax);
+
+        int opCount = 100;
+        t0 = System.nanoTime();
+        for (int i = 0; i < opCount; i++) {
+            arr1.find(testData[i]);
+        }
+        t1 = System.nanoTime();
+        System.out.println("find x " + opCount + ": " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < opCount; i++) {
+            arr1.binarySearch(testData[i], Comparator.naturalOrder());
+        }
+        t1 = System.nanoTime();
+        System.out.println("binarySearch x " + opCount + ": " + (t1 - t0) / 1_000_000_000.0 + "s");
+    }
+
+    private static void test5() {
+        // 对比按行存储和按列存储计算平均分的性能差异。
+        int n = 5_000_000;
+        Random random = new Random();
+
+        Array<Student> rows = new Array<>();
+        StudentColumns columns = new StudentColumns();
+        for (int i = 0; i < n; i++) {
+            String name = "Student" + i;
+            int score = random.nextInt(101);
+            rows.addLast(new Student(name, score));
+            columns.addLast(name, score);
+        }
+
+        long t0 = System.nanoTime();
+        long sum = 0;
+        for (Student student : rows) {
+            sum += student.getScore();
+        }
+        long t1 = System.nanoTime();
+        System.out.println("Array<Student> average: " + (double) sum / n + ", time: " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        t0 = System.nanoTime();
+        sum = columns.sumScores();
+        t1 = System.nanoTime();
+        System.out.println("StudentColumns average: " + (double) sum / n + ", time: " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        t0 = System.nanoTime();
+        sum = columns.parallelSumScores();
+        t1 = System.nanoTime();
+        System.out.println("StudentColumns parallel average: " + (double) sum / n + ", time: " + (t1 - t0) / 1_000_000_000.0 + "s");
+
+        t0 = System.nanoTime();
+        int count = columns.filterScores(60, 100).cardinality();
+        t1 = System.nanoTime();
+        System.out.println("StudentColumns filter [60, 100]: " + count + ", time: " + (t1 - t0) / 1_000_000_000.0 + "s");
+    }
+
+    private static void test6() {
+        // 对比逐个元素比较的标量循环和 IntArray 中便于向量化的计算。
+        int n = 10_000_000;
+        int rounds = 20;
+        Random random = new Random();
+        int[] testData = new int[n];
+        for (int i = 0; i < n; i++) {
+            testData[i] = random.nextInt(1024);
+        }
+        IntArray arr = new IntArray(testData);
+
+        // 先各运行几次，让 JIT 编译完成。
+        for (int r = 0; r < 5; r++) {
+            scalarCount(testData, 100, 200);
+            arr.count(100, 200);
+            scalarIndexOf(testData, -1);
+            arr.indexOf(-1);
+            scalarSum(testData);
+            arr.sum();
+        }
+
+        long t0 = System.nanoTime();
+        int c1 = 0;
+        for (int r = 0; r < rounds; r++) {
+            c1 = scalarCount(testData, 100, 200);
+        }
+        long t1 = System.nanoTime();
+        int c2 = 0;
+        for (int r = 0; r < rounds; r++) {
+            c2 = arr.count(100, 200);
+        }
+        long t2 = System.nanoTime();
+        System.out.println("count scalar: " + (t1 - t0) / 1_000_000_000.0 + "s, kernel: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (c1 == c2));
+
+        t0 = System.nanoTime();
+        int i1 = 0;
+        for (int r = 0; r < rounds; r++) {
+            i1 = scalarIndexOf(testData, -1);
+        }
+        t1 = System.nanoTime();
+        int i2 = 0;
+        for (int r = 0; r < rounds; r++) {
+            i2 = arr.indexOf(-1);
+        }
+        t2 = System.nanoTime();
+        System.out.println("indexOf scalar: " + (t1 - t0) / 1_000_000_000.0 + "s, kernel: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (i1 == i2));
+
+        t0 = System.nanoTime();
+        long s1 = 0;
+        for (int r = 0; r < rounds; r++) {
+            s1 = scalarSum(testData);
+        }
+        t1 = System.nanoTime();
+        long s2 = 0;
+        for (int r = 0; r < rounds; r++) {
+            s2 = arr.sum();
+        }
+        t2 = System.nanoTime();
+        System.out.println("sum scalar: " + (t1 - t0) / 1_000_000_000.0 + "s, kernel: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (s1 == s2));
+
+        t0 = System.nanoTime();
+        int[] h = null;
+        for (int r = 0; r < rounds; r++) {
+            h = arr.histogram(0, 1024, 16);
+        }
+        t1 = System.nanoTime();
+        System.out.println("histogram: " + (t1 - t0) / 1_000_000_000.0 + "s, first bucket: " + h[0]);
+    }
+
+    private static void test7() {
+        // 对比 LongArray 和 SortedLongSequence 存放有序 id 列表的内存和查找。
+        int n = 5_000_000;
+        Random random = new Random();
+        LongArray arr = new LongArray(n);
+        SortedLongSequence seq = new SortedLongSequence();
+        SortedLongSequence other = new SortedLongSequence();
+        long id = 0;
+        for (int i = 0; i < n; i++) {
+            id += 1 + random.nextInt(50);
+            arr.addLast(id);
+            seq.add(id);
+            // other 很稀疏，intersect 会走跳跃的分支（other.getSize() * 128 < n）。
+            // 一半取 seq 中的 id，一半取 id + 1，它不一定在 seq 中。
+            if (random.nextInt(1000) == 0) {
+                other.add(random.nextBoolean() ? id : id + 1);
+            }
+        }
+        System.out.println("LongArray bytes: " + (long) n * Long.BYTES + ", SortedLongSequence bytes: " + seq.getEncodedBytes());
+
+        int queries = 1_000_000;
+        long[] keys = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            keys[i] = (long) (random.nextDouble() * id);
+        }
+
+        long t0 = System.nanoTime();
+        int c1 = 0;
+        for (long key : keys) {
+            if (binarySearch(arr, key)) {
+                c1++;
+            }
+        }
+        long t1 = System.nanoTime();
+        int c2 = 0;
+        for (long key : keys) {
+            if (seq.contains(key)) {
+                c2++;
+            }
+        }
+        long t2 = System.nanoTime();
+        System.out.println("contains LongArray: " + (t1 - t0) / 1_000_000_000.0 + "s, SortedLongSequence: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (c1 == c2));
+
+        // 在 LongArray 中逐个二分查找 other 的元素，作为交集大小的参照。
+        int expected = 0;
+        PrimitiveIterator.OfLong it = other.iterator();
+        while (it.hasNext()) {
+            if (binarySearch(arr, it.nextLong())) {
+                expected++;
+            }
+        }
+
+        t0 = System.nanoTime();
+        int size1 = seq.intersect(seq).getSize();
+        t1 = System.nanoTime();
+        int size2 = seq.intersect(other).getSize();
+        t2 = System.nanoTime();
+        System.out.println("intersect merge: " + (t1 - t0) / 1_000_000_000.0 + "s, " + (size1 == n)
+                + ", skip (" + other.getSize() + " ids): " + (t2 - t1) / 1_000_000_000.0 + "s, " + (size2 == expected));
+    }
+
+    private static void test8() {
+        // 在光标附近反复添加和删除，对比 Array 和 GapArray。
+        int n = 200_000;
+        int opCount = 20_000;
+
+        double time1 = testClusteredEdits(new Array<>(), n, opCount);
+        System.out.println("Array, time: " + time1 + "s");
+
+        double time2 = testClusteredEdits(new GapArray<>(), n, opCount);
+        System.out.println("GapArray, time: " + time2 + "s");
+    }
+
+    /**
+     * 先添加 n 个元素，再模拟编辑器中的编辑：光标每次在附近移动几步，在光标处添加或者删除一个元素。
+     * @return 编辑所需要的时间，单位：秒
+     */
+    private static double testClusteredEdits(DynamicArray<Integer> arr, int n, int opCount) {
+        for (int i = 0; i < n; i++) {
+            arr.addLast(i);
+        }
+
+        // 两种数组使用相同的随机序列，进行完全相同的编辑。
+        Random random = new Random(0);
+        int cursor = n / 2;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < opCount; i++) {
+            cursor = Math.max(0, Math.min(arr.getSize() - 1, cursor + random.nextInt(17) - 8));
+            if (random.nextBoolean()) {
+                arr.add(cursor, i);
+            } else {
+                arr.remove(cursor);
+            }
+        }
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    private static void test9() {
+        // 对比 IntArray 和 PackedIntArray 存放 0 ~ 1023 的小整数的内存，以及随机读取和顺序解码的速度。
+        int n = 10_000_000;
+        int bits = 10;
+        Random random = new Random();
+        int[] testData = new int[n];
+        for (int i = 0; i < n; i++) {
+            testData[i] = random.nextInt(1 << bits);
+        }
+        IntArray arr = new IntArray(testData);
+        PackedIntArray packed = new PackedIntArray(n, bits);
+        packed.addAll(testData);
+
+        // Array<Integer> 每个元素一个引用（4 字节）加一个 Integer 对象（16 字节）。
+        System.out.println("Array<Integer> bytes: " + (long) n * 20 + ", IntArray bytes: " + (long) n * Integer.BYTES
+                + ", PackedIntArray bytes: " + (long) packed.getCapacity() * packed.getBitsPerValue() / 8);
+
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = random.nextInt(n);
+        }
+
+        long t0 = System.nanoTime();
+        long s1 = 0;
+        for (int index : indexes) {
+            s1 += arr.get(index);
+        }
+        long t1 = System.nanoTime();
+        long s2 = 0;
+        for (int index : indexes) {
+            s2 += packed.get(index);
+        }
+        long t2 = System.nanoTime();
+        System.out.println("random get IntArray: " + (t1 - t0) / 1_000_000_000.0 + "s, PackedIntArray: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (s1 == s2));
+
+        t0 = System.nanoTime();
+        s1 = arr.sum();
+        t1 = System.nanoTime();
+        // 每次解码一小段到缓冲区中再求和，缓冲区一直留在缓存中。
+        int[] buffer = new int[1024];
+        s2 = 0;
+        for (int from = 0; from < n; from += buffer.length) {
+            int len = Math.min(buffer.length, n - from);
+            packed.decode(from, buffer, 0, len);
+            for (int i = 0; i < len; i++) {
+                s2 += buffer[i];
+            }
+        }
+        t2 = System.nanoTime();
+        System.out.println("sum IntArray: " + (t1 - t0) / 1_000_000_000.0 + "s, PackedIntArray decode: " + (t2 - t1) / 1_000_000_000.0 + "s, " + (s1 == s2));
+    }
+
+    private static boolean binarySearch(LongArray arr, long key) {
+        int l = 0, r = arr.getSize() - 1;
+        while (l <= r) {
+            int mid = (l + r) >>> 1;
+            long v = arr.get(mid);
+            if (v == key) {
+                return true;
+            }
+            if (v < key) {
+                l = mid + 1;
+            } else {
+                r = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    private static int scalarCount(int[] a, int lo, int hi) {
+        int c = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] >= lo && a[i] <= hi) {
+                c++;
+            }
+        }
+        return c;
+    }
+
+    private static int scalarIndexOf(int[] a, int e) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long scalarSum(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    private static String format(long t0, long t1, long t2, long t3) {
+        return String.format("fill: %fs, scan: %fs, remove: %fs",
+                (t1 - t0) / 1_000_000_000.0, (t2 - t1) / 1_000_000_000.0, (t3 - t2) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,268 @@
+package app.array;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedArray
+ * 存放在文件中的动态数组。
+ *
+ * Array 只存在于内存中，程序每次启动都需要重新构建，数据越多，启动越慢。
+ * MappedArray 通过 FileChannel.map 把文件映射到内存中，元素使用 ElementCodec 编码为定长的字节直接存放在映射的内存里。
+ * 对映射内存的读写就是对文件的读写，不需要序列化和反序列化。
+ *
+ * 文件格式：
+ * | 文件头 16 字节：magic、元素宽度、每块的元素个数、元素个数 | 第 0 块 | 第 1 块 | ... |
+ *
+ * 文件按块增长，每次增长一块，块映射为一个单独的 MappedByteBuffer，这样文件大小不受单个 MappedByteBuffer 2GB 的限制，
+ * 增长时也不需要重新映射或者拷贝已有的数据。
+ *
+ * 重新打开一个已有的文件只需要读取文件头，是 O(1) 的，每个块在第一次被访问时才会映射，
+ * 映射之后也只有被访问到的页才会由操作系统从磁盘读入，所以启动时间和数据量无关。
+ *
+ * 元素个数记录在文件头中，每次修改都会更新，调用 force 可以把修改刷到磁盘上。
+ */
+public class MappedArray<E> implements Closeable {
+
+    private static final int MAGIC = 0x4D415252;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int WIDTH_OFFSET = 4;
+    private static final int CHUNK_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int HEADER_SIZE = 16;
+
+    // 默认每块存放 2^20 个元素。
+    private static final int DEFAULT_CHUNK_ELEMENTS = 1 << 20;
+
+    private final FileChannel channel;
+    private final ElementCodec<E> codec;
+    private final MappedByteBuffer header;
+    // 已经映射的块，没有访问过的块为 null。
+    private MappedByteBuffer[] chunks;
+
+    private final int width;
+    private final int chunkElements;
+    // 文件中已经分配的块的个数。
+    private int chunkCount;
+    private int size;
+
+    /**
+     * 打开一个文件，如果文件不存在或者为空，则创建一个新的数组。
+     * 如果文件已经存在，会使用文件中记录的每块元素个数，参数 chunkElements 被忽略。
+     * @param file 文件路径。
+     * @param codec 元素的编解码器。
+     * @param chunkElements 每块存放的元素个数。
+     * @throws IOException
+     */
+    public MappedArray(Path file, ElementCodec<E> codec, int chunkElements) throws IOException {
+        if (codec.getWidth() <= 0) {
+            throw new IllegalArgumentException("Element width must be positive.");
+        }
+        if (!isValidChunkElements(chunkElements, codec.getWidth())) {
+            throw new IllegalArgumentException("Chunk elements is illegal.");
+        }
+
+        this.codec = codec;
+        width = codec.getWidth();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            boolean isNew = channel.size() == 0;
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.nativeOrder());
+
+            if (isNew) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(WIDTH_OFFSET, width);
+                header.putInt(CHUNK_OFFSET, chunkElements);
+                header.putInt(SIZE_OFFSET, 0);
+                this.chunkElements = chunkElements;
+                size = 0;
+                chunkCount = 0;
+            } else {
+                if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                    throw new IllegalArgumentException("Not a MappedArray file.");
+                }
+                if (header.getInt(WIDTH_OFFSET) != width) {
+                    throw new IllegalArgumentException("Element width mismatch.");
+                }
+                // 文件头中的值来自文件，损坏的文件或者其他程序写入的文件可能是任意值，和构造参数一样检查范围。
+                int storedChunkElements = header.getInt(CHUNK_OFFSET);
+                if (!isValidChunkElements(storedChunkElements, width)) {
+                    throw new IllegalArgumentException("Chunk elements in file header is illegal.");
+                }
+                this.chunkElements = storedChunkElements;
+                size = header.getInt(SIZE_OFFSET);
+                chunkCount = (int) ((channel.size() - HEADER_SIZE) / chunkBytes());
+                if (size < 0 || size > getCapacity()) {
+                    throw new IllegalArgumentException("Size in file header is illegal.");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        chunks = new MappedByteBuffer[Math.max(1, chunkCount)];
+    }
+
+    public MappedArray(Path file, ElementCodec<E> codec) throws IOException {
+        this(file, codec, DEFAULT_CHUNK_ELEMENTS);
+    }
+
+    /**
+     * 获取数组的容量，也就是文件中已经分配的块能存放元素的个数。
+     * @return
+     */
+    public long getCapacity() {
+        return (long) chunkCount * chunkElements;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 向数组末尾添加元素。
+     * 如果已经分配的块满了，文件增长一块。
+     * @param e
+     */
+    public void addLast(E e) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("AddLast failed. Array is full.");
+        }
+
+        // 先映射元素所在的块（文件随之增长），映射成功之后才增加块数，映射失败时数组保持不变。
+        MappedByteBuffer chunk = chunk(size / chunkElements);
+        if (size == getCapacity()) {
+            chunkCount++;
+        }
+
+        codec.encode(chunk, (size % chunkElements) * width, e);
+        size++;
+        header.putInt(SIZE_OFFSET, size);
+    }
+
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return codec.decode(chunk(index / chunkElements), (index % chunkElements) * width);
+    }
+
+    public E getLast() {
+        return get(size - 1);
+    }
+
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        write(index, e);
+    }
+
+    /**
+     * 删除最后一个元素。
+     * 文件不会缩小，已经分配的块留给之后添加的元素使用。
+     * @return 删除的元素。
+     */
+    public E removeLast() {
+        E ret = getLast();
+        size--;
+        header.putInt(SIZE_OFFSET, size);
+        return ret;
+    }
+
+    /**
+     * 把所有的修改刷到磁盘上。
+     */
+    public void force() {
+        for (int i = 0; i < chunkCount && i < chunks.length; i++) {
+            if (chunks[i] != null) {
+                chunks[i].force();
+            }
+        }
+        header.force();
+    }
+
+    /**
+     * 刷盘并关闭文件。
+     * 映射的内存没有办法主动释放，会在 MappedByteBuffer 被回收时释放。
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        chunks = null;
+        channel.close();
+    }
+
+    private void write(int index, E e) {
+        codec.encode(chunk(index / chunkElements), (index % chunkElements) * width, e);
+    }
+
+    private int chunkBytes() {
+        return chunkElements * width;
+    }
+
+    /**
+     * 每块的元素个数必须为正数，并且每块的字节数不能超过一个 MappedByteBuffer 的大小。
+     */
+    private static boolean isValidChunkElements(int chunkElements, int width) {
+        return chunkElements > 0 && (long) chunkElements * width <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * 获取第 i 块的映射，第一次访问时才进行映射。
+     * 映射超出文件末尾的区域时，文件会自动增长。
+     */
+    private MappedByteBuffer chunk(int i) {
+        if (chunks == null) {
+            throw new IllegalArgumentException("MappedArray is closed.");
+        }
+
+        if (i >= chunks.length) {
+            MappedByteBuffer[] newChunks = new MappedByteBuffer[Math.max(i + 1, 2 * chunks.length)];
+            System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+            chunks = newChunks;
+        }
+
+        MappedByteBuffer chunk = chunks[i];
+        if (chunk == null) {
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + (long) i * chunkBytes(), chunkBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunk.order(ByteOrder.nativeOrder());
+            chunks[i] = chunk;
+        }
+        return chunk;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("MappedArray: size = %d, capacity = %d\n", size, getCapacity()));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(get(i));
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
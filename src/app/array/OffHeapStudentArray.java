@@ -0,0 +1,354 @@
+package app.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * OffHeapStudentArray
+ * 存放在堆外内存中的学生记录数组。
+ *
+ * 使用 Array<Student> 存放学生，每一行都是一个 Student 对象（对象头 + 两个字段）、一个 String 对象和它的字符数组，
+ * 数组中存放的只是引用。行数达到几百万的时候，堆上就有上千万个对象，垃圾回收每次都要扫描它们。
+ *
+ * OffHeapStudentArray 把每个学生存为一条定长的记录，所有记录紧挨着存放在一块通过 ByteBuffer.allocateDirect 申请的堆外内存中。
+ * 不管存放了多少条记录，堆上都只有这个对象和一个 ByteBuffer，垃圾回收的开销不会随着记录数增长。
+ *
+ * 每条记录的格式：
+ * | score (int, 4 字节) | 名字长度 (short, 2 字节) | 名字 (char, 2 * maxNameLength 字节) | 补齐到 8 字节的整数倍 |
+ *
+ * 名字的长度不能超过构造时指定的 maxNameLength。
+ *
+ * 通过 get 读取一行会创建 Student 和 String 对象，如果只是为了读取某些字段，可以使用 row() 得到一个 Row，
+ * 它是一个享元（flyweight），移动到某一行之后直接从堆外内存中读取字段，不创建任何对象。
+ *
+ * 时间复杂度和 Array 相同。
+ */
+public class OffHeapStudentArray {
+
+    private static final int SCORE_OFFSET = 0;
+    private static final int NAME_LENGTH_OFFSET = 4;
+    private static final int NAME_OFFSET = 6;
+
+    private ByteBuffer buffer;
+    // 每条记录的字节数。
+    private final int recordSize;
+    private final int maxNameLength;
+    // 能存放记录的条数。
+    private int capacity;
+    private int size;
+
+    /**
+     * 构造函数。
+     * @param capacity 初始容量。
+     * @param maxNameLength 名字的最大长度。
+     */
+    public OffHeapStudentArray(int capacity, int maxNameLength) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+        if (maxNameLength < 0 || maxNameLength > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Max name length is illegal.");
+        }
+
+        this.maxNameLength = maxNameLength;
+        // 补齐到 8 字节的整数倍，这样挪动记录时可以一次挪动一个 long。
+        recordSize = (NAME_OFFSET + 2 * maxNameLength + 7) & ~7;
+        this.capacity = capacity;
+        buffer = allocate(capacity);
+        size = 0;
+    }
+
+    /**
+     * 默认初始容量为 10，名字最多 16 个字符。
+     */
+    public OffHeapStudentArray() {
+        this(10, 16);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取名字的最大长度。
+     * @return
+     */
+    public int getMaxNameLength() {
+        return maxNameLength;
+    }
+
+    /**
+     * 获取每条记录占用的字节数。
+     * @return
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * 在指定索引添加一条记录。
+     * @param index
+     * @param name
+     * @param score
+     */
+    public void add(int index, String name, int score) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+        checkName(name);
+
+        if (size == capacity) {
+            resize(Math.max(1, 2 * capacity));
+        }
+
+        moveRecords(index, index + 1, size - index);
+        write(index, name, score);
+        size++;
+    }
+
+    public void add(int index, Student student) {
+        add(index, student.getName(), student.getScore());
+    }
+
+    public void addLast(String name, int score) {
+        add(size, name, score);
+    }
+
+    public void addLast(Student student) {
+        add(size, student);
+    }
+
+    /**
+     * 获取指定索引的记录。
+     * 会创建一个 Student 对象，如果只需要读取字段，使用 row() 可以避免创建对象。
+     * @param index
+     * @return
+     */
+    public Student get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return new Student(readName(index), buffer.getInt(offset(index) + SCORE_OFFSET));
+    }
+
+    public void set(int index, String name, int score) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+        checkName(name);
+
+        write(index, name, score);
+    }
+
+    public void set(int index, Student student) {
+        set(index, student.getName(), student.getScore());
+    }
+
+    /**
+     * 删除指定索引的记录。
+     * 和 Array 不同，这里不返回删除的记录，因为构造返回值需要创建对象。
+     * @param index
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Index is Illegal.");
+        }
+
+        moveRecords(index + 1, index, size - index - 1);
+        size--;
+
+        // 缩容采取 lazy 的策略，记录数变为 1/4 时再进行缩容。
+        if (size == capacity / 4 && capacity / 2 != 0) {
+            resize(capacity / 2);
+        }
+    }
+
+    public void removeLast() {
+        remove(size - 1);
+    }
+
+    /**
+     * 创建一个用来读取记录的享元，可以反复移动到不同的行，读取字段时不会创建对象。
+     * @return
+     */
+    public Row row() {
+        return new Row();
+    }
+
+    /**
+     * Row
+     * 指向某一条记录的享元。
+     * 它不保存任何字段的值，每次读取都直接访问堆外内存，所以在数组被修改之后读到的是最新的值。
+     */
+    public class Row {
+
+        private int offset;
+
+        private Row() {
+        }
+
+        /**
+         * 移动到索引为 index 的记录。
+         * @param index
+         * @return 这个 Row 本身，方便链式调用。
+         */
+        public Row moveTo(int index) {
+            if (index < 0 || index >= size) {
+                throw new IllegalArgumentException("MoveTo failed. Index is illegal.");
+            }
+            offset = offset(index);
+            return this;
+        }
+
+        public int getScore() {
+            return buffer.getInt(offset + SCORE_OFFSET);
+        }
+
+        public void setScore(int score) {
+            buffer.putInt(offset + SCORE_OFFSET, score);
+        }
+
+        public int getNameLength() {
+            return buffer.getShort(offset + NAME_LENGTH_OFFSET);
+        }
+
+        public char getNameCharAt(int i) {
+            if (i < 0 || i >= getNameLength()) {
+                throw new IllegalArgumentException("Index is illegal.");
+            }
+            return buffer.getChar(offset + NAME_OFFSET + 2 * i);
+        }
+
+        /**
+         * 比较名字是否和 name 相同，不创建对象。
+         * @param name
+         * @return
+         */
+        public boolean nameEquals(CharSequence name) {
+            int len = getNameLength();
+            if (name.length() != len) {
+                return false;
+            }
+            for (int i = 0; i < len; i++) {
+                if (buffer.getChar(offset + NAME_OFFSET + 2 * i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 把名字追加到 sb 中，不创建中间的 String。
+         * @param sb
+         */
+        public void appendName(StringBuilder sb) {
+            int len = getNameLength();
+            for (int i = 0; i < len; i++) {
+                sb.append(buffer.getChar(offset + NAME_OFFSET + 2 * i));
+            }
+        }
+    }
+
+    private int offset(int index) {
+        return index * recordSize;
+    }
+
+    private void checkName(String name) {
+        if (name.length() > maxNameLength) {
+            throw new IllegalArgumentException("Name is longer than " + maxNameLength + ".");
+        }
+    }
+
+    private void write(int index, String name, int score) {
+        int offset = offset(index);
+        buffer.putInt(offset + SCORE_OFFSET, score);
+        buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) name.length());
+        for (int i = 0; i < name.length(); i++) {
+            buffer.putChar(offset + NAME_OFFSET + 2 * i, name.charAt(i));
+        }
+    }
+
+    private String readName(int index) {
+        int offset = offset(index);
+        int len = buffer.getShort(offset + NAME_LENGTH_OFFSET);
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = buffer.getChar(offset + NAME_OFFSET + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 把从 from 开始的 count 条记录挪动到从 to 开始的位置。
+     * 两段区间可能重叠，所以向后挪动时从最后一个 long 开始挪起，向前挪动时从第一个 long 开始挪起。
+     */
+    private void moveRecords(int from, int to, int count) {
+        int src = offset(from);
+        int dst = offset(to);
+        int bytes = count * recordSize;
+        if (dst > src) {
+            for (int i = bytes - 8; i >= 0; i -= 8) {
+                buffer.putLong(dst + i, buffer.getLong(src + i));
+            }
+        } else {
+            for (int i = 0; i < bytes; i += 8) {
+                buffer.putLong(dst + i, buffer.getLong(src + i));
+            }
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        long bytes = (long) capacity * recordSize;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity is too large.");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 改变容量。
+     * 旧的堆外内存在 ByteBuffer 被回收时释放。
+     * @param newCapacity
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        ByteBuffer newBuffer = allocate(newCapacity);
+        ByteBuffer src = buffer.duplicate();
+        src.position(0).limit(offset(size));
+        newBuffer.put(src);
+        newBuffer.clear();
+        buffer = newBuffer;
+        capacity = newCapacity;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("OffHeapStudentArray: size = %d, capacity = %d\n", size, capacity));
+        res.append('[');
+        Row row = row();
+        for (int i = 0; i < size; i++) {
+            row.moveTo(i);
+            res.append("Student(name: ");
+            row.appendName(res);
+            res.append(", score: ").append(row.getScore()).append(')');
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
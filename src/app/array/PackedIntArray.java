@@ -0,0 +1,291 @@
+package app.array;
+
+/**
+ * PackedIntArray
+ * 按位压缩存储的非负整数数组。
+ *
+ * 使用 Array<Integer> 存放 0 ~ 1023 这样的小整数，每个元素是一个 Integer 对象（16 字节）加上一个引用（4 字节），大约 20 字节。
+ * 而表示 0 ~ 1023 其实只需要 10 位。
+ *
+ * PackedIntArray 让每个元素只占用 bitsPerValue 位，所有元素首尾相接地存放在一个 long[] 中：
+ * 第 i 个元素从第 i * bitsPerValue 位开始，可能跨越两个相邻的 long。
+ * 这样存放一亿个 10 位的整数只需要大约 125MB，随机访问依然是 O(1) 的，只需要几次移位和与运算。
+ *
+ * 添加的元素超过当前位宽能表示的范围时，会自动加宽，把所有元素按照新的位宽重新存放一遍，复杂度 O(n)。
+ * 由于位宽最多 31 位，加宽最多发生 31 次。
+ */
+public class PackedIntArray {
+
+    private long[] words;
+    private int bitsPerValue;
+    private int size;
+
+    /**
+     * 构造函数。
+     * @param capacity 初始容量。
+     * @param bitsPerValue 初始位宽，范围 [1, 31]。
+     */
+    public PackedIntArray(int capacity, int bitsPerValue) {
+        if (bitsPerValue < 1 || bitsPerValue > 31) {
+            throw new IllegalArgumentException("Bits per value must be in [1, 31].");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        this.bitsPerValue = bitsPerValue;
+        words = new long[wordsFor(capacity, bitsPerValue)];
+        size = 0;
+    }
+
+    /**
+     * 默认初始容量为 10，初始位宽为 1，添加元素时按需加宽。
+     */
+    public PackedIntArray() {
+        this(10, 1);
+    }
+
+    /**
+     * 获取数组的容量，也就是当前位宽下 long[] 能存放的元素个数。
+     * @return
+     */
+    public int getCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) words.length * 64 / bitsPerValue);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getBitsPerValue() {
+        return bitsPerValue;
+    }
+
+    /**
+     * 向数组末尾添加元素，如果 e 超出了当前位宽能表示的范围，先加宽。
+     * @param e 非负整数。
+     */
+    public void addLast(int e) {
+        ensureBits(e);
+        if (size == getCapacity()) {
+            resize(Math.max(1, 2 * size));
+        }
+
+        write(size, e);
+        size++;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return read(index);
+    }
+
+    /**
+     * 修改 index 索引位置的元素为 e，如果 e 超出了当前位宽能表示的范围，先加宽。
+     * @param index
+     * @param e 非负整数。
+     */
+    public void set(int index, int e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        ensureBits(e);
+        write(index, e);
+    }
+
+    public int removeLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("RemoveLast failed. Array is empty.");
+        }
+
+        int ret = read(size - 1);
+        // 清除这个元素的位，这样之后 write 时可以直接使用或运算。
+        write(size - 1, 0);
+        size--;
+        return ret;
+    }
+
+    /**
+     * 一次性在末尾添加一组元素。
+     * 先根据这组元素的最大值一次加宽到位，再把元素逐个拼接成完整的 long 写入，而不是每个元素都读写一次 long[]。
+     * @param arr 非负整数组成的数组。
+     */
+    public void addAll(int[] arr) {
+        int max = 0;
+        for (int e : arr) {
+            if (e < 0) {
+                throw new IllegalArgumentException("Only non-negative values can be packed.");
+            }
+            max |= e;
+        }
+        ensureBits(max);
+        if (arr.length == 0) {
+            return;
+        }
+
+        long needed = (long) size + arr.length;
+        if (needed > getCapacity()) {
+            resize((int) Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * size)));
+        }
+
+        int bits = bitsPerValue;
+        long bitPos = (long) size * bits;
+        int w = (int) (bitPos >>> 6);
+        int used = (int) (bitPos & 63);
+        // 当前正在拼接的 long，先保留已经存在的低位。
+        long cur = words[w] & ((1L << used) - 1);
+        for (int e : arr) {
+            cur |= (long) e << used;
+            used += bits;
+            if (used >= 64) {
+                words[w++] = cur;
+                used -= 64;
+                // 这个元素放不下的高位留到下一个 long 中。
+                cur = used == 0 ? 0 : (long) e >>> (bits - used);
+            }
+        }
+        if (used > 0) {
+            words[w] = cur;
+        }
+        size += arr.length;
+    }
+
+    /**
+     * 把从 from 开始的 len 个元素解码到 dst 中，按顺序读取 long[]，每个 long 只读取一次。
+     * @param from 起始索引。
+     * @param dst 目标数组。
+     * @param dstOffset 目标数组中的起始位置。
+     * @param len 元素个数。
+     */
+    public void decode(int from, int[] dst, int dstOffset, int len) {
+        if (from < 0 || len < 0 || from + len > size) {
+            throw new IllegalArgumentException("Decode failed. Range is illegal.");
+        }
+        if (len == 0) {
+            return;
+        }
+
+        int bits = bitsPerValue;
+        long mask = (1L << bits) - 1;
+        long bitPos = (long) from * bits;
+        int w = (int) (bitPos >>> 6);
+        int avail = 64 - (int) (bitPos & 63);
+        long cur = words[w] >>> (64 - avail);
+        for (int i = 0; i < len; i++) {
+            long v;
+            if (avail >= bits) {
+                v = cur & mask;
+                cur >>>= bits;
+                avail -= bits;
+            } else {
+                // 这个元素跨越了两个 long，先取出当前 long 剩下的低位，再从下一个 long 取高位。
+                long next = words[++w];
+                v = (cur | (next << avail)) & mask;
+                cur = next >>> (bits - avail);
+                avail = 64 - (bits - avail);
+            }
+            dst[dstOffset + i] = (int) v;
+        }
+    }
+
+    /**
+     * 解码全部元素。
+     * @return
+     */
+    public int[] toArray() {
+        int[] res = new int[size];
+        decode(0, res, 0, size);
+        return res;
+    }
+
+    private int read(int index) {
+        int bits = bitsPerValue;
+        long bitPos = (long) index * bits;
+        int w = (int) (bitPos >>> 6);
+        int offset = (int) (bitPos & 63);
+        long mask = (1L << bits) - 1;
+
+        long v = words[w] >>> offset;
+        if (offset + bits > 64) {
+            v |= words[w + 1] << (64 - offset);
+        }
+        return (int) (v & mask);
+    }
+
+    private void write(int index, int e) {
+        int bits = bitsPerValue;
+        long bitPos = (long) index * bits;
+        int w = (int) (bitPos >>> 6);
+        int offset = (int) (bitPos & 63);
+        long mask = (1L << bits) - 1;
+
+        words[w] = (words[w] & ~(mask << offset)) | ((long) e << offset);
+        if (offset + bits > 64) {
+            int shift = 64 - offset;
+            words[w + 1] = (words[w + 1] & ~(mask >>> shift)) | ((long) e >>> shift);
+        }
+    }
+
+    /**
+     * 保证当前的位宽可以表示 e，否则加宽。
+     */
+    private void ensureBits(int e) {
+        if (e < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be packed.");
+        }
+
+        int needed = Math.max(1, 32 - Integer.numberOfLeadingZeros(e));
+        if (needed > bitsPerValue) {
+            widen(needed);
+        }
+    }
+
+    /**
+     * 按照新的位宽重新存放所有元素，容量（元素个数）保持不变。
+     */
+    private void widen(int newBits) {
+        int[] values = toArray();
+        int capacity = Math.max(getCapacity(), size);
+        bitsPerValue = newBits;
+        words = new long[wordsFor(capacity, newBits)];
+        size = 0;
+        addAll(values);
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        long[] newWords = new long[wordsFor(newCapacity, bitsPerValue)];
+        System.arraycopy(words, 0, newWords, 0, Math.min(words.length, newWords.length));
+        words = newWords;
+    }
+
+    private static int wordsFor(int capacity, int bits) {
+        return (int) (((long) capacity * bits + 63) >>> 6);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("PackedIntArray: size = %d, capacity = %d, bitsPerValue = %d\n", size, getCapacity(), bitsPerValue));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(read(i));
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
@@ -0,0 +1,329 @@
+package app.array;
+
+/**
+ * SegmentedArray
+ * 分块的动态数组。
+ *
+ * Array 每次扩容都要申请一个两倍大小的静态数组，再把所有元素拷贝过去。
+ * 元素很多的时候，这是一次非常大的内存分配，拷贝的过程中新旧两个数组同时存在，需要 3 倍的内存，还会给垃圾回收带来很大的压力。
+ *
+ * SegmentedArray 把元素存放在多个大小固定为 2^chunkShift 的块中，再用一个目录（directory）记录所有的块。
+ * 容量不够时只需要新申请一个块，已有的元素不需要挪动；缩容时也只需要释放最后一个块。
+ * 目录本身也需要扩容，但是它只存放块的引用，大小只有元素个数的 1/2^chunkShift。
+ *
+ * 由于块的大小是 2 的幂，索引为 index 的元素在第 index >>> chunkShift 个块中，块内的偏移是 index & chunkMask，
+ * 所以 get 和 set 依然是 O(1) 的，只比 Array 多访问一次目录。
+ *
+ * 时间复杂度和 Array 相同：
+ * 增 O(n)
+ * 删 O(n)
+ * 改 已知索引 O(1) 未知索引O(n)
+ * 查 已知索引 O(1) 未知索引O(n)
+ */
+public class SegmentedArray<E> implements DynamicArray<E> {
+
+    // 默认每个块存放 2^10 = 1024 个元素。
+    private static final int DEFAULT_CHUNK_SHIFT = 10;
+
+    // 块的目录。
+    private E[][] chunks;
+    // 已经分配的块的个数。
+    private int chunkCount;
+    // 数组中存放元素的个数。
+    private int size;
+    // 改变容量的次数。
+    private int resizeCount;
+
+    private final int chunkShift;
+    private final int chunkSize;
+    private final int chunkMask;
+
+    /**
+     * 构造函数。
+     * @param capacity 数组初始容量，会向上取整为块大小的整数倍。
+     * @param chunkShift 每个块的大小为 2^chunkShift。
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedArray(int capacity, int chunkShift) {
+        if (chunkShift < 0 || chunkShift > 30) {
+            throw new IllegalArgumentException("Chunk shift must be in [0, 30].");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        this.chunkShift = chunkShift;
+        chunkSize = 1 << chunkShift;
+        chunkMask = chunkSize - 1;
+
+        // 至少分配一个块。
+        int count = Math.max(1, (int) (((long) capacity + chunkMask) >>> chunkShift));
+        chunks = (E[][]) new Object[count][];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = (E[]) new Object[chunkSize];
+        }
+        chunkCount = count;
+        size = 0;
+    }
+
+    public SegmentedArray(int capacity) {
+        this(capacity, DEFAULT_CHUNK_SHIFT);
+    }
+
+    public SegmentedArray() {
+        this(0);
+    }
+
+    /**
+     * 通过一个静态数组构造动态数组。
+     * @param arr 静态数组。
+     */
+    public SegmentedArray(E[] arr) {
+        this(arr.length);
+        for (int i = 0; i < chunkCount; i++) {
+            int from = i << chunkShift;
+            if (from < arr.length) {
+                System.arraycopy(arr, from, chunks[i], 0, Math.min(chunkSize, arr.length - from));
+            }
+        }
+        size = arr.length;
+    }
+
+    /**
+     * 获取数组的容量，也就是已经分配的块能存放元素的个数。
+     */
+    @Override
+    public int getCapacity() {
+        return chunkCount << chunkShift;
+    }
+
+    /**
+     * 获取数组改变容量的次数，也就是添加或者释放块的次数。
+     */
+    @Override
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在指定索引添加一个元素。
+     * 索引后面的元素需要依次向后挪动一个位置，每个块内部使用一次块拷贝，每个块的最后一个元素挪到下一个块的开头。
+     * @param index
+     * @param e
+     */
+    @Override
+    public void add(int index, E e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+
+        if (size == getCapacity()) {
+            addChunk();
+        }
+
+        // 从最后一个块开始挪起。
+        int c = size >>> chunkShift;
+        int ic = index >>> chunkShift;
+        for (int k = c; k > ic; k--) {
+            E[] chunk = chunks[k];
+            int len = k == c ? (size & chunkMask) : chunkSize - 1;
+            System.arraycopy(chunk, 0, chunk, 1, len);
+            chunk[0] = chunks[k - 1][chunkMask];
+        }
+
+        E[] chunk = chunks[ic];
+        int io = index & chunkMask;
+        int end = ic == c ? (size & chunkMask) : chunkSize - 1;
+        System.arraycopy(chunk, io, chunk, io + 1, end - io);
+        chunk[io] = e;
+        size++;
+    }
+
+    /**
+     * 向数组末尾添加元素。
+     * 时间复杂度 O(1)，而且不需要均摊，因为扩容时不需要拷贝任何元素。
+     */
+    @Override
+    public void addLast(E e) {
+        add(size, e);
+    }
+
+    @Override
+    public void addFirst(E e) {
+        add(0, e);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        return chunks[index >>> chunkShift][index & chunkMask];
+    }
+
+    @Override
+    public E getLast() {
+        return get(size - 1);
+    }
+
+    @Override
+    public E getFirst() {
+        return get(0);
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Index is illegal.");
+        }
+
+        chunks[index >>> chunkShift][index & chunkMask] = e;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return find(e) != -1;
+    }
+
+    /**
+     * 查找元素 e 所在的第一个索引，如果不存在该元素，则返回 -1。
+     * 按块遍历，块内是连续的数组访问。
+     */
+    @Override
+    public int find(E e) {
+        for (int k = 0, base = 0; base < size; k++, base += chunkSize) {
+            E[] chunk = chunks[k];
+            int len = Math.min(chunkSize, size - base);
+            for (int i = 0; i < len; i++) {
+                if (chunk[i].equals(e)) {
+                    return base + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从数组中删除指定索引的元素，并将其返回。
+     * 和 add 相反，索引后面的元素依次向前挪动一个位置，每个块的第一个元素挪到上一个块的末尾。
+     */
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Index is Illegal.");
+        }
+
+        int ic = index >>> chunkShift;
+        int io = index & chunkMask;
+        int last = size - 1;
+        int c = last >>> chunkShift;
+
+        E ret = chunks[ic][io];
+
+        if (ic == c) {
+            System.arraycopy(chunks[ic], io + 1, chunks[ic], io, (last & chunkMask) - io);
+        } else {
+            System.arraycopy(chunks[ic], io + 1, chunks[ic], io, chunkSize - 1 - io);
+            chunks[ic][chunkMask] = chunks[ic + 1][0];
+            for (int k = ic + 1; k <= c; k++) {
+                E[] chunk = chunks[k];
+                int len = k == c ? (last & chunkMask) : chunkSize - 1;
+                System.arraycopy(chunk, 1, chunk, 0, len);
+                if (k < c) {
+                    chunk[chunkMask] = chunks[k + 1][0];
+                }
+            }
+        }
+
+        chunks[c][last & chunkMask] = null;
+        size--;
+
+        // 缩容同样采取 lazy 的策略，最后空出两个块时才释放一个，防止在块的边界上反复添加删除时复杂度震荡。
+        if (chunkCount > 1 && size <= (chunkCount - 2) << chunkShift) {
+            removeChunk();
+        }
+
+        return ret;
+    }
+
+    @Override
+    public E removeFirst() {
+        return remove(0);
+    }
+
+    @Override
+    public E removeLast() {
+        return remove(size - 1);
+    }
+
+    @Override
+    public void removeElement(E e) {
+        int index = find(e);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        if (i < 0 || i >= size || j < 0 || j >= size) {
+            throw new IllegalArgumentException("Index is illegal.");
+        }
+
+        E[] ci = chunks[i >>> chunkShift];
+        E[] cj = chunks[j >>> chunkShift];
+        E t = ci[i & chunkMask];
+        ci[i & chunkMask] = cj[j & chunkMask];
+        cj[j & chunkMask] = t;
+    }
+
+    /**
+     * 添加一个块。
+     * 如果目录满了，目录的容量翻倍，但是只需要拷贝块的引用，不需要拷贝元素。
+     */
+    @SuppressWarnings("unchecked")
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            E[][] newChunks = (E[][]) new Object[2 * chunks.length][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            chunks = newChunks;
+        }
+
+        chunks[chunkCount++] = (E[]) new Object[chunkSize];
+        resizeCount++;
+    }
+
+    /**
+     * 释放最后一个块。目录本身很小，不做缩容。
+     */
+    private void removeChunk() {
+        chunks[--chunkCount] = null;
+        resizeCount++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("SegmentedArray: size = %d, capacity = %d, chunks = %d\n", size, getCapacity(), chunkCount));
+        res.append('[');
+        for (int i = 0; i < size; i++) {
+            res.append(chunks[i >>> chunkShift][i & chunkMask]);
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
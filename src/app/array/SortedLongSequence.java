@@ -0,0 +1,381 @@
+package app.array;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * SortedLongSequence
+ * 压缩存储的严格递增非负整数序列。
+ *
+ * 排好序的 id 列表，相邻两个 id 的差往往很小。用 Array<Long> 或者 BSTSet<Integer> 存放，每个 id 都要付出一个完整的对象的代价。
+ *
+ * SortedLongSequence 只能在末尾添加比最后一个元素更大的数，存放的是相邻两个数的差（delta），
+ * 差使用 varint 编码：每个字节存放 7 位，最高位表示后面是否还有字节，所以小于 128 的差只需要 1 个字节。
+ *
+ * 每 BLOCK_SIZE 个元素组成一块，每块的第一个元素不做编码，单独存放在跳跃索引（skip index）中，同时记录这一块在字节数组中的起始位置。
+ * 查找时先在跳跃索引上二分查找，找到所在的块，再从块的开头解码，最多只需要解码一个块。
+ *
+ * 时间复杂度：
+ * add                  O(1) 均摊
+ * get                  O(BLOCK_SIZE)
+ * contains             O(log(n / BLOCK_SIZE) + BLOCK_SIZE)
+ * rank                 O(log(n / BLOCK_SIZE) + BLOCK_SIZE)
+ * nextGreaterOrEqual   O(log(n / BLOCK_SIZE) + BLOCK_SIZE)
+ * 遍历                 O(n)，边遍历边解码，不需要先把整个序列解压出来
+ */
+public class SortedLongSequence implements Iterable<Long> {
+
+    private static final int BLOCK_SIZE = 128;
+
+    // 编码后的 delta。
+    private byte[] bytes;
+    private int byteSize;
+
+    // 跳跃索引：每块的第一个元素，以及这一块的 delta 在 bytes 中的起始位置。
+    private long[] blockFirst;
+    private int[] blockOffset;
+    private int blockCount;
+
+    private int size;
+    private long last;
+
+    public SortedLongSequence() {
+        bytes = new byte[64];
+        blockFirst = new long[4];
+        blockOffset = new int[4];
+        byteSize = 0;
+        blockCount = 0;
+        size = 0;
+        last = -1;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 估算占用的字节数，包括编码后的 delta 和跳跃索引，不包括数组中预留的空间。
+     * @return
+     */
+    public long getEncodedBytes() {
+        return byteSize + (long) blockCount * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * 在末尾添加一个元素。
+     * @param e 非负整数，必须大于当前的最后一个元素。
+     */
+    public void add(long e) {
+        if (e < 0) {
+            throw new IllegalArgumentException("Add failed. Only non-negative values are supported.");
+        }
+        if (size > 0 && e <= last) {
+            throw new IllegalArgumentException("Add failed. Require e > last.");
+        }
+
+        if (size % BLOCK_SIZE == 0) {
+            // 开始新的一块，第一个元素存放在跳跃索引中。
+            if (blockCount == blockFirst.length) {
+                blockFirst = Arrays.copyOf(blockFirst, 2 * blockCount);
+                blockOffset = Arrays.copyOf(blockOffset, 2 * blockCount);
+            }
+            blockFirst[blockCount] = e;
+            blockOffset[blockCount] = byteSize;
+            blockCount++;
+        } else {
+            writeVarLong(e - last);
+        }
+
+        last = e;
+        size++;
+    }
+
+    /**
+     * 获取索引为 index 的元素，需要从所在块的开头解码。
+     * @param index
+     * @return
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Index is illegal.");
+        }
+
+        int b = index / BLOCK_SIZE;
+        long v = blockFirst[b];
+        int pos = blockOffset[b];
+        for (int i = b * BLOCK_SIZE; i < index; i++) {
+            long delta = readVarLong(pos);
+            pos += varLongSize(delta);
+            v += delta;
+        }
+        return v;
+    }
+
+    public long getLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetLast failed. Sequence is empty.");
+        }
+        return last;
+    }
+
+    /**
+     * 查看序列中是否包含 e。
+     * @param e
+     * @return
+     */
+    public boolean contains(long e) {
+        // 序列中只有非负整数，而且 nextGreaterOrEqual 用 -1 表示不存在。
+        return e >= 0 && nextGreaterOrEqual(e) == e;
+    }
+
+    /**
+     * 序列中小于 e 的元素个数，也就是 e 如果在序列中，它的索引。
+     * @param e
+     * @return
+     */
+    public int rank(long e) {
+        // 最后一个第一个元素小于 e 的块，前面的块都整块小于 e。
+        int b = lastBlockBefore(e, false);
+        if (b < 0) {
+            return 0;
+        }
+
+        BlockCursor cursor = new BlockCursor(b);
+        int count = b * BLOCK_SIZE;
+        while (cursor.hasNext() && cursor.next() < e) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 序列中大于等于 e 的最小元素。
+     * @param e
+     * @return 大于等于 e 的最小元素，如果不存在则返回 -1。
+     */
+    public long nextGreaterOrEqual(long e) {
+        if (size == 0 || e > last) {
+            return -1;
+        }
+
+        // 最后一个第一个元素小于等于 e 的块。
+        int b = lastBlockBefore(e, true);
+        if (b < 0) {
+            return blockFirst[0];
+        }
+
+        BlockCursor cursor = new BlockCursor(b);
+        while (cursor.hasNext()) {
+            long v = cursor.next();
+            if (v >= e) {
+                return v;
+            }
+        }
+        // 这一块中的元素都小于 e，那么下一块的第一个元素就是答案，由于 e <= last，下一块一定存在。
+        return blockFirst[b + 1];
+    }
+
+    /**
+     * 求两个序列的交集。
+     * 两个序列长度相近时同时遍历两个序列进行归并；长度相差很大时，使用 nextGreaterOrEqual 在两个序列之间交替跳跃，
+     * 每次跳跃都可以借助跳跃索引跳过大量的块。
+     * @param other
+     * @return 一个新的序列，包含同时在两个序列中的元素。
+     */
+    public SortedLongSequence intersect(SortedLongSequence other) {
+        SortedLongSequence res = new SortedLongSequence();
+        if (size == 0 || other.size == 0) {
+            return res;
+        }
+
+        SortedLongSequence small = size <= other.size ? this : other;
+        SortedLongSequence large = small == this ? other : this;
+
+        if ((long) small.size * BLOCK_SIZE < large.size) {
+            long x = small.blockFirst[0];
+            while (x != -1) {
+                long y = large.nextGreaterOrEqual(x);
+                if (y == -1) {
+                    break;
+                }
+                if (y == x) {
+                    res.add(x);
+                    x = small.nextGreaterOrEqual(x + 1);
+                } else {
+                    x = small.nextGreaterOrEqual(y);
+                }
+            }
+            return res;
+        }
+
+        PrimitiveIterator.OfLong a = iterator();
+        PrimitiveIterator.OfLong b = other.iterator();
+        long x = a.nextLong();
+        long y = b.nextLong();
+        while (true) {
+            if (x == y) {
+                res.add(x);
+                if (!a.hasNext() || !b.hasNext()) {
+                    break;
+                }
+                x = a.nextLong();
+                y = b.nextLong();
+            } else if (x < y) {
+                if (!a.hasNext()) {
+                    break;
+                }
+                x = a.nextLong();
+            } else {
+                if (!b.hasNext()) {
+                    break;
+                }
+                y = b.nextLong();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * 按顺序遍历序列，边遍历边解码。
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int index = 0;
+            private int pos;
+            private long v = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                if (index % BLOCK_SIZE == 0) {
+                    int b = index / BLOCK_SIZE;
+                    v = blockFirst[b];
+                    pos = blockOffset[b];
+                } else {
+                    long delta = readVarLong(pos);
+                    pos += varLongSize(delta);
+                    v += delta;
+                }
+                index++;
+                return v;
+            }
+        };
+    }
+
+    /**
+     * 在跳跃索引上二分查找最后一个第一个元素小于 e（inclusive 为 true 时是小于等于 e）的块。
+     * @return 块的编号，如果不存在则返回 -1。
+     */
+    private int lastBlockBefore(long e, boolean inclusive) {
+        int l = 0, r = blockCount;
+        // 在 [l, r) 中寻找第一个不满足条件的块。
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            long first = blockFirst[mid];
+            if (inclusive ? first <= e : first < e) {
+                l = mid + 1;
+            } else {
+                r = mid;
+            }
+        }
+        return l - 1;
+    }
+
+    private void writeVarLong(long v) {
+        if (byteSize + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, byteSize + 10));
+        }
+
+        while ((v & ~0x7FL) != 0) {
+            bytes[byteSize++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        bytes[byteSize++] = (byte) v;
+    }
+
+    /**
+     * 读取 writeVarLong 从 pos 开始写入的一个整数。
+     * 下一个整数从 pos + varLongSize(返回值) 开始，这样读取时不需要额外的对象来返回新的位置。
+     * @param pos
+     * @return
+     */
+    private long readVarLong(int pos) {
+        long v = 0;
+        int shift = 0;
+        byte x;
+        do {
+            x = bytes[pos++];
+            v |= (long) (x & 0x7F) << shift;
+            shift += 7;
+        } while (x < 0);
+        return v;
+    }
+
+    /**
+     * writeVarLong 写入 v 使用的字节数，每个字节存放 7 位，至少一个字节。
+     */
+    private static int varLongSize(long v) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(v) + 6) / 7);
+    }
+
+    /**
+     * 从某一块的开头开始解码这一块中的元素。
+     */
+    private class BlockCursor {
+        private final int end;
+        private int index;
+        private int pos;
+        private long v;
+
+        BlockCursor(int b) {
+            index = b * BLOCK_SIZE;
+            end = Math.min(size, index + BLOCK_SIZE);
+            pos = blockOffset[b];
+            v = blockFirst[b];
+        }
+
+        boolean hasNext() {
+            return index < end;
+        }
+
+        long next() {
+            if (index % BLOCK_SIZE != 0) {
+                long delta = readVarLong(pos);
+                pos += varLongSize(delta);
+                v += delta;
+            }
+            index++;
+            return v;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("SortedLongSequence: size = %d, bytes = %d\n", size, getEncodedBytes()));
+        res.append('[');
+        PrimitiveIterator.OfLong it = iterator();
+        while (it.hasNext()) {
+            res.append(it.nextLong());
+            if (it.hasNext()) {
+                res.append(", ");
+            }
+        }
+        res.append(']');
+        return res.toString();
+    }
+}
@@ -13,6 +13,14 @@ public class Student {
         score = studentScore;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
     @Override
     public String toString(){
         return String.format("Student(name: %s, score: %d)", name, score);
@@ -25,5 +33,12 @@ public class Student {
         arr.addLast(new Student("Bob", 66));
         arr.addLast(new Student("Charlie", 88));
         System.out.println(arr);
+
+        // 把同样的记录存放在堆外内存中。
+        OffHeapStudentArray offHeapArr = new OffHeapStudentArray();
+        for (int i = 0; i < arr.getSize(); i++) {
+            offHeapArr.addLast(arr.get(i));
+        }
+        System.out.println(offHeapArr);
     }
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+package app.array;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * StudentColumns
+ * 按列存储的学生记录（struct of arrays）。
+ *
+ * Array<Student> 是按行存储的，每一行是一个 Student 对象，数组中存放的是引用。
+ * 计算平均分这样的聚合操作，每一行都要顺着引用找到 Student 对象再读取 score，名字虽然用不到，也和分数挤在同一片内存中。
+ *
+ * StudentColumns 把每个字段存放在自己的数组中：所有的名字在一个 String[] 中，所有的分数在一个 int[] 中。
+ * 对某一个字段做聚合时只需要顺序扫描这个字段的数组，内存访问是连续的，也不会读到无关的字段。
+ *
+ * 行操作（添加、读取、删除一行）需要同时修改每一列，复杂度和 Array 相同。
+ * 列操作（sum、min、max、filter）只访问一列，复杂度 O(n)，并且都有并行版本。
+ */
+public class StudentColumns {
+
+    private String[] names;
+    private int[] scores;
+    private int size;
+
+    public StudentColumns(int capacity) {
+        names = new String[capacity];
+        scores = new int[capacity];
+        size = 0;
+    }
+
+    public StudentColumns() {
+        this(10);
+    }
+
+    public int getCapacity() {
+        return scores.length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在指定索引添加一行。
+     * @param index
+     * @param name
+     * @param score
+     */
+    public void add(int index, String name, int score) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Require index >= 0 and index <= size.");
+        }
+
+        if (size == scores.length) {
+            resize(Math.max(1, 2 * scores.length));
+        }
+
+        System.arraycopy(names, index, names, index + 1, size - index);
+        System.arraycopy(scores, index, scores, index + 1, size - index);
+        names[index] = name;
+        scores[index] = score;
+        size++;
+    }
+
+    public void add(int index, Student student) {
+        add(index, student.getName(), student.getScore());
+    }
+
+    public void addLast(String name, int score) {
+        add(size, name, score);
+    }
+
+    public void addLast(Student student) {
+        add(size, student);
+    }
+
+    /**
+     * 读取一行，组装成一个 Student 对象。
+     * @param index
+     * @return
+     */
+    public Student get(int index) {
+        checkIndex(index, "Get");
+        return new Student(names[index], scores[index]);
+    }
+
+    public String getName(int index) {
+        checkIndex(index, "Get");
+        return names[index];
+    }
+
+    public int getScore(int index) {
+        checkIndex(index, "Get");
+        return scores[index];
+    }
+
+    public void set(int index, String name, int score) {
+        checkIndex(index, "Set");
+        names[index] = name;
+        scores[index] = score;
+    }
+
+    public void setScore(int index, int score) {
+        checkIndex(index, "Set");
+        scores[index] = score;
+    }
+
+    /**
+     * 删除一行，并将其返回。
+     * @param index
+     * @return
+     */
+    public Student remove(int index) {
+        checkIndex(index, "Remove");
+
+        Student ret = new Student(names[index], scores[index]);
+
+        System.arraycopy(names, index + 1, names, index, size - index - 1);
+        System.arraycopy(scores, index + 1, scores, index, size - index - 1);
+        size--;
+        names[size] = null;
+
+        if (size == scores.length / 4 && scores.length / 2 != 0) {
+            resize(scores.length / 2);
+        }
+
+        return ret;
+    }
+
+    public Student removeLast() {
+        return remove(size - 1);
+    }
+
+    /**
+     * 分数之和。只扫描分数这一列。
+     * @return
+     */
+    public long sumScores() {
+        int[] a = scores;
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public int minScore() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get min score when empty.");
+        }
+
+        int[] a = scores;
+        int min = a[0];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    public int maxScore() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get max score when empty.");
+        }
+
+        int[] a = scores;
+        int max = a[0];
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    /**
+     * 找出分数在 [lo, hi] 区间的所有行。
+     * @param lo
+     * @param hi
+     * @return 一个位图，第 i 位为 1 表示第 i 行满足条件。
+     */
+    public BitSet filterScores(int lo, int hi) {
+        long[] words = new long[(size + 63) >>> 6];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = filterWord(w, lo, hi);
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * 并行地计算分数之和，分数这一列被拆分成若干段交给公共线程池。
+     * @return
+     */
+    public long parallelSumScores() {
+        return Arrays.stream(scores, 0, size).parallel().asLongStream().sum();
+    }
+
+    public int parallelMinScore() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get min score when empty.");
+        }
+        return Arrays.stream(scores, 0, size).parallel().min().getAsInt();
+    }
+
+    public int parallelMaxScore() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not get max score when empty.");
+        }
+        return Arrays.stream(scores, 0, size).parallel().max().getAsInt();
+    }
+
+    /**
+     * 并行版本的 filterScores。
+     * 每个任务负责位图中的若干个 long，每个 long 对应 64 行，不同的任务不会写同一个 long。
+     * @param lo
+     * @param hi
+     * @return
+     */
+    public BitSet parallelFilterScores(int lo, int hi) {
+        long[] words = new long[(size + 63) >>> 6];
+        IntStream.range(0, words.length).parallel().forEach(w -> words[w] = filterWord(w, lo, hi));
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * 计算位图中第 w 个 long，也就是 [64w, 64w + 64) 这些行是否满足条件。
+     */
+    private long filterWord(int w, int lo, int hi) {
+        int[] a = scores;
+        int from = w << 6;
+        int to = Math.min(size, from + 64);
+        long word = 0;
+        for (int i = from; i < to; i++) {
+            int s = a[i];
+            // 把比较的结果直接移位到对应的位上。
+            word |= (s >= lo & s <= hi ? 1L : 0L) << (i - from);
+        }
+        return word;
+    }
+
+    private void checkIndex(int index, String op) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException(op + " failed. Index is illegal.");
+        }
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity is Illegal.");
+        }
+
+        names = Arrays.copyOf(names, newCapacity);
+        scores = Arrays.copyOf(scores, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append(String.format("StudentColumns: size = %d, capacity = %d\n", size, scores.length));
+        res.append("names: ").append(Arrays.toString(Arrays.copyOf(names, size))).append('\n');
+        res.append("scores: ").append(Arrays.toString(Arrays.copyOf(scores, size)));
+        return res.toString();
+    }
+}
@@ -1,6 +1,8 @@
 package app.heap;
 
 import app.array.Array;
+import app.array.DynamicArray;
+import app.array.GrowthPolicy;
 
 /**
  * MaxHeap
@@ -38,7 +40,7 @@ import app.array.Array;
  * 斐波那契堆
  */
 public class MaxHeap<E extends Comparable<E>> {
-    private Array<E> data;
+    private DynamicArray<E> data;
 
     public MaxHeap(int capacity) {
         data = new Array<>(capacity);
@@ -48,6 +50,24 @@ public class MaxHeap<E extends Comparable<E>> {
         data = new Array<>();
     }
 
+    public MaxHeap(int capacity, GrowthPolicy growthPolicy) {
+        data = new Array<>(capacity, growthPolicy);
+    }
+
+    /**
+     * 指定底层使用的动态数组，比如使用 SegmentedArray 避免大容量时整体拷贝。
+     * 如果 data 中已经有元素，会对这些元素做一次 heapify。
+     * @param data
+     */
+    public MaxHeap(DynamicArray<E> data) {
+        this.data = data;
+        if (data.getSize() > 1) {
+            for (int i = parent(data.getSize() - 1); i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+    }
+
     /**
      * 将任意一个数组生成为一个最大堆。
      * 如果将 n 个元素逐个插入到一个空堆中，复杂度是 O(nlogn) 级别的。
@@ -77,6 +97,14 @@ public class MaxHeap<E extends Comparable<E>> {
         return data.isEmpty();
     }
 
+    /**
+     * 返回底层动态数组改变容量的次数。
+     * @return
+     */
+    public int getResizeCount() {
+        return data.getResizeCount();
+    }
+
     /**
      * 返回完全二叉树的数组表示中，一个索引所表示的元素的父亲节点的索引。
      * @param index
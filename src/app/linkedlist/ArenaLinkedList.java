@@ -0,0 +1,213 @@
+package app.linkedlist;
+
+import java.util.Arrays;
+
+/**
+ * ArenaLinkedList
+ * 使用数组模拟节点的链表。
+ *
+ * LinkedList 每添加一个元素都要创建一个 Node 对象，删除之后这个对象就成了垃圾，
+ * 频繁地在链表头添加和删除（比如作为栈使用）时，会不停地产生需要垃圾回收的对象。
+ *
+ * ArenaLinkedList 不创建节点对象，节点用编号表示：节点 i 的元素是 values[i]，下一个节点由 NodePool 记录。
+ * 删除的节点不会被丢弃，而是放回 NodePool 的空闲链表（free list），添加节点时优先从空闲链表中取。
+ * 这样在元素个数稳定之后，添加和删除都不会再分配任何内存，只有节点数超过数组容量时才需要扩容。
+ *
+ * 和 LinkedList 一样，0 号节点是虚拟头节点。各个操作的时间复杂度和 LinkedList 相同。
+ */
+public class ArenaLinkedList<E> implements List<E> {
+
+    private static final int NIL = NodePool.NIL;
+
+    private final NodePool pool;
+    private E[] values;
+    // 虚拟头节点。
+    private final int dummyHead;
+    private int size;
+
+    /**
+     * 构造函数。
+     * @param capacity 初始能够存放的元素个数。
+     */
+    @SuppressWarnings("unchecked")
+    public ArenaLinkedList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        pool = new NodePool(capacity + 1);
+        values = (E[]) new Object[capacity + 1];
+        dummyHead = pool.allocate();
+        size = 0;
+    }
+
+    public ArenaLinkedList() {
+        this(10);
+    }
+
+    /**
+     * 获取不扩容时能够存放的元素个数。
+     * @return
+     */
+    public int getCapacity() {
+        return values.length - 1;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void add(int index, E e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Illegal index.");
+        }
+
+        int prev = dummyHead;
+        for (int i = 0; i < index; i++) {
+            prev = pool.next(prev);
+        }
+
+        int node = allocate();
+        values[node] = e;
+        pool.setNext(node, pool.next(prev));
+        pool.setNext(prev, node);
+        size++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        add(0, e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        add(size, e);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Illegal index.");
+        }
+
+        int cur = pool.next(dummyHead);
+        for (int i = 0; i < index; i++) {
+            cur = pool.next(cur);
+        }
+        return values[cur];
+    }
+
+    @Override
+    public E getFirst() {
+        return get(0);
+    }
+
+    @Override
+    public E getLast() {
+        return get(size - 1);
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Illegal index.");
+        }
+
+        int cur = pool.next(dummyHead);
+        for (int i = 0; i < index; i++) {
+            cur = pool.next(cur);
+        }
+        values[cur] = e;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        for (int cur = pool.next(dummyHead); cur != NIL; cur = pool.next(cur)) {
+            if (values[cur].equals(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Illegal index.");
+        }
+
+        int prev = dummyHead;
+        for (int i = 0; i < index; i++) {
+            prev = pool.next(prev);
+        }
+
+        return removeAfter(prev);
+    }
+
+    @Override
+    public E removeFirst() {
+        return remove(0);
+    }
+
+    @Override
+    public E removeLast() {
+        return remove(size - 1);
+    }
+
+    @Override
+    public void removeElements(E e) {
+        int prev = dummyHead;
+        while (pool.next(prev) != NIL) {
+            if (values[pool.next(prev)].equals(e)) {
+                removeAfter(prev);
+                return;
+            }
+            prev = pool.next(prev);
+        }
+    }
+
+    /**
+     * 删除 prev 的下一个节点，并把它放回空闲链表。
+     */
+    private E removeAfter(int prev) {
+        int delNode = pool.next(prev);
+        E ret = values[delNode];
+        pool.setNext(prev, pool.next(delNode));
+
+        values[delNode] = null;
+        pool.release(delNode);
+        size--;
+
+        return ret;
+    }
+
+    /**
+     * 从 NodePool 中取出一个节点，NodePool 扩容之后 values 也跟着扩容，节点的编号不变。
+     */
+    private int allocate() {
+        int node = pool.allocate();
+        if (node >= values.length) {
+            values = Arrays.copyOf(values, pool.getCapacity());
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+
+        for (int cur = pool.next(dummyHead); cur != NIL; cur = pool.next(cur)) {
+            res.append(values[cur] + "->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
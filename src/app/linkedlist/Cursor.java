@@ -0,0 +1,41 @@
+package app.linkedlist;
+
+import java.util.Iterator;
+
+/**
+ * Cursor
+ * 链表的游标。
+ *
+ * 按索引遍历链表，每次 get(i) 都要从头走到第 i 个节点，遍历一遍就是 O(n^2) 的。
+ * 游标记住了当前所在的节点，next 每次只前进一步，并且可以在当前位置直接修改链表，这些操作都是 O(1) 的。
+ *
+ * 「当前元素」是指上一次 next 返回的元素。
+ */
+public interface Cursor<E> extends Iterator<E> {
+
+    /**
+     * 删除当前元素，删除之后没有当前元素，直到再次调用 next。
+     */
+    @Override
+    void remove();
+
+    /**
+     * 修改当前元素为 e。
+     * @param e
+     */
+    void set(E e);
+
+    /**
+     * 在当前元素之前插入 e，如果没有当前元素，插入到游标所在的位置，也就是 next 将要返回的元素之前。
+     * 游标的位置不变，之后的 next 不会返回 e。
+     * @param e
+     */
+    void insertBefore(E e);
+
+    /**
+     * 在当前元素之后插入 e，如果没有当前元素，插入到游标所在的位置，也就是 next 将要返回的元素之前。
+     * 插入之后 e 成为当前元素，之后的 next 从 e 的下一个元素继续。
+     * @param e
+     */
+    void insertAfter(E e);
+}
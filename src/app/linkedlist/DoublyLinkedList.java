@@ -0,0 +1,243 @@
+package app.linkedlist;
+
+/**
+ * DoublyLinkedList
+ * 双向链表。
+ *
+ * LinkedList 只跟踪了链表的头，在链表尾添加、查看、删除元素都要从头遍历整个链表，
+ * 所以循环调用 addLast 添加 n 个元素，总的复杂度是 O(n^2) 的。
+ *
+ * 双向链表的每个节点同时记录前一个节点和后一个节点，并且除了虚拟头节点 dummyHead，再放置一个虚拟尾节点 dummyTail：
+ *
+ *   dummyHead <-> 0 <-> 1 <-> 2 <-> dummyTail
+ *
+ * 这样在链表的两端操作都是 O(1) 的；删除一个节点时可以直接找到它前面的节点，不需要再从头遍历。
+ * 按索引访问时，根据 index 离哪一端更近，从那一端开始遍历，最多只需要遍历 n / 2 个节点。
+ * 代价是每个节点多一个引用。
+ *
+ * 双向链表各个操作时间复杂度：
+ * addFirst(e)    O(1)
+ * addLast(e)     O(1)
+ * add(e)         O(min(index, n - index))
+ *
+ * removeFirst(e) O(1)
+ * removeLast(e)  O(1)
+ * remove(e)      O(min(index, n - index))
+ *
+ * set(index, e)  O(min(index, n - index))
+ *
+ * get(index)     O(min(index, n - index))
+ * contains(e)    O(n)
+ */
+public class DoublyLinkedList<E> implements List<E> {
+
+    private class Node {
+        public E e;
+        public Node prev, next;
+
+        public Node(E e, Node prev, Node next) {
+            this.e = e;
+            this.prev = prev;
+            this.next = next;
+        }
+
+        public Node() {
+            this(null, null, null);
+        }
+
+        @Override
+        public String toString() {
+            return e.toString();
+        }
+    }
+
+    // 虚拟头节点和虚拟尾节点，真正的元素都在两者之间，所以在任何位置插入和删除都不需要特殊处理。
+    private Node dummyHead, dummyTail;
+    private int size;
+
+    public DoublyLinkedList() {
+        dummyHead = new Node();
+        dummyTail = new Node();
+        dummyHead.next = dummyTail;
+        dummyTail.prev = dummyHead;
+        size = 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在 index 位置插入新的元素 e，也就是插入到当前 index 位置的节点之前。
+     * @param index
+     * @param e
+     */
+    @Override
+    public void add(int index, E e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Illegal index.");
+        }
+
+        // index == size 时，插入到 dummyTail 之前。
+        Node next = index == size ? dummyTail : node(index);
+        linkBefore(next, e);
+    }
+
+    @Override
+    public void addFirst(E e) {
+        linkBefore(dummyHead.next, e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        linkBefore(dummyTail, e);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Illegal index.");
+        }
+
+        return node(index).e;
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetFirst failed. List is empty.");
+        }
+
+        return dummyHead.next.e;
+    }
+
+    @Override
+    public E getLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetLast failed. List is empty.");
+        }
+
+        return dummyTail.prev.e;
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Illegal index.");
+        }
+
+        node(index).e = e;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        for (Node cur = dummyHead.next; cur != dummyTail; cur = cur.next) {
+            if (cur.e.equals(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Illegal index.");
+        }
+
+        return unlink(node(index));
+    }
+
+    @Override
+    public E removeFirst() {
+        if (size == 0) {
+            throw new IllegalArgumentException("RemoveFirst failed. List is empty.");
+        }
+
+        return unlink(dummyHead.next);
+    }
+
+    @Override
+    public E removeLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("RemoveLast failed. List is empty.");
+        }
+
+        return unlink(dummyTail.prev);
+    }
+
+    /**
+     * 删除第一个等于 e 的元素。
+     * @param e
+     */
+    @Override
+    public void removeElements(E e) {
+        for (Node cur = dummyHead.next; cur != dummyTail; cur = cur.next) {
+            if (cur.e.equals(e)) {
+                unlink(cur);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 找到 index 位置的节点，index 在前半部分时从头向后遍历，否则从尾向前遍历。
+     */
+    private Node node(int index) {
+        if (index < size / 2) {
+            Node cur = dummyHead.next;
+            for (int i = 0; i < index; i++) {
+                cur = cur.next;
+            }
+            return cur;
+        } else {
+            Node cur = dummyTail.prev;
+            for (int i = size - 1; i > index; i--) {
+                cur = cur.prev;
+            }
+            return cur;
+        }
+    }
+
+    /**
+     * 在节点 next 之前插入新的元素 e。
+     */
+    private void linkBefore(Node next, E e) {
+        Node prev = next.prev;
+        Node node = new Node(e, prev, next);
+        prev.next = node;
+        next.prev = node;
+        size++;
+    }
+
+    /**
+     * 删除节点 node，并返回其中的元素。
+     */
+    private E unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        size--;
+        return node.e;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+
+        res.append("NULL<->");
+        for (Node cur = dummyHead.next; cur != dummyTail; cur = cur.next) {
+            res.append(cur + "<->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
@@ -0,0 +1,308 @@
+package app.linkedlist;
+
+import java.util.Random;
+
+/**
+ * IndexableSkipList
+ * 可按索引访问的跳表。
+ *
+ * 链表按索引访问时只能一个节点一个节点地走，get、set、add、remove 都是 O(n) 的。
+ *
+ * 跳表在链表的基础上给一部分节点加上更高层的「快速通道」：每个节点随机拥有若干层，第 i 层的 next 指向下一个至少有 i + 1 层的节点。
+ * 每个节点有 1/4 的概率再升高一层，所以每高一层，节点数大约变为原来的 1/4，层数的期望是 O(log n)。
+ *
+ * 为了按索引访问，每一层的指针还记录了它的跨度（span），也就是沿着这个指针前进时跨过了多少个位置：
+ *
+ *   层 2: head ---------------(3)---------------> c --(2)--> NULL
+ *   层 1: head -----(2)-----> b -------(1)------> c --(2)--> NULL
+ *   层 0: head --(1)--> a --(1)--> b --(1)--> c --(1)--> d --(1)--> NULL
+ *
+ * 查找索引 index 时从最高层开始，只要前进之后不超过 index 就前进，否则下降一层，累加跨度就得到当前的位置。
+ * 插入和删除时，顺便修改路径上每一层的跨度即可。
+ *
+ * 时间复杂度（期望）：
+ * addFirst(e)    O(log n)
+ * addLast(e)     O(log n)
+ * add(e)         O(log n)
+ *
+ * removeFirst(e) O(log n)
+ * removeLast(e)  O(log n)
+ * remove(e)      O(log n)
+ *
+ * set(index, e)  O(log n)
+ *
+ * get(index)     O(log n)
+ * getFirst()     O(1)
+ * getLast()      O(1)
+ * contains(e)    O(n)
+ */
+public class IndexableSkipList<E> implements List<E> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private static class Node<E> {
+        public E e;
+        public Node<E>[] next;
+        // span[i] 是沿着 next[i] 前进时跨过的位置数，next[i] 为 null 时，看作指向位置 size。
+        public int[] span;
+
+        @SuppressWarnings("unchecked")
+        public Node(E e, int level) {
+            this.e = e;
+            next = (Node<E>[]) new Node<?>[level];
+            span = new int[level];
+        }
+
+        @Override
+        public String toString() {
+            return e.toString();
+        }
+    }
+
+    // 虚拟头节点，拥有所有的层，它的位置看作 -1。
+    private Node<E> dummyHead;
+    // 最后一个节点，这样 getLast 不需要查找。
+    private Node<E> tail;
+    // 当前使用的层数。
+    private int level;
+    private int size;
+    private Random random;
+
+    public IndexableSkipList() {
+        dummyHead = new Node<>(null, MAX_LEVEL);
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            dummyHead.span[i] = 1;
+        }
+        tail = null;
+        level = 1;
+        size = 0;
+        random = new Random();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在 index 位置插入新的元素 e。
+     * @param index
+     * @param e
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void add(int index, E e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Illegal index.");
+        }
+
+        // update[i] 是第 i 层中位于 index 之前的最后一个节点，rank[i] 是它的位置。
+        Node<E>[] update = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<E> x = dummyHead;
+        int pos = -1;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && pos + x.span[i] < index) {
+                pos += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+            rank[i] = pos;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                update[i] = dummyHead;
+                rank[i] = -1;
+                dummyHead.span[i] = size + 1;
+            }
+            level = nodeLevel;
+        }
+
+        Node<E> node = new Node<>(e, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            // 原来 update[i] 的下一个节点位置是 rank[i] + span，插入之后向后移动了一位。
+            node.span[i] = rank[i] + update[i].span[i] + 1 - index;
+            update[i].span[i] = index - rank[i];
+        }
+        // 更高的层跨过了新节点，跨度加一。
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        if (node.next[0] == null) {
+            tail = node;
+        }
+        size++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        add(0, e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        add(size, e);
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Illegal index.");
+        }
+
+        return node(index).e;
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetFirst failed. List is empty.");
+        }
+
+        return dummyHead.next[0].e;
+    }
+
+    @Override
+    public E getLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetLast failed. List is empty.");
+        }
+
+        return tail.e;
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Illegal index.");
+        }
+
+        node(index).e = e;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        for (Node<E> cur = dummyHead.next[0]; cur != null; cur = cur.next[0]) {
+            if (cur.e.equals(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Illegal index.");
+        }
+
+        Node<E>[] update = (Node<E>[]) new Node<?>[level];
+        Node<E> x = dummyHead;
+        int pos = -1;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && pos + x.span[i] < index) {
+                pos += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node<E> delNode = update[0].next[0];
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == delNode) {
+                update[i].span[i] += delNode.span[i] - 1;
+                update[i].next[i] = delNode.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        if (tail == delNode) {
+            tail = update[0] == dummyHead ? null : update[0];
+        }
+        // 去掉已经没有节点的最高层。
+        while (level > 1 && dummyHead.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+
+        return delNode.e;
+    }
+
+    @Override
+    public E removeFirst() {
+        return remove(0);
+    }
+
+    @Override
+    public E removeLast() {
+        return remove(size - 1);
+    }
+
+    /**
+     * 删除第一个等于 e 的元素。
+     * @param e
+     */
+    @Override
+    public void removeElements(E e) {
+        int index = 0;
+        for (Node<E> cur = dummyHead.next[0]; cur != null; cur = cur.next[0]) {
+            if (cur.e.equals(e)) {
+                remove(index);
+                return;
+            }
+            index++;
+        }
+    }
+
+    /**
+     * 找到 index 位置的节点，从最高层开始，只要前进之后不超过 index 就前进。
+     */
+    private Node<E> node(int index) {
+        Node<E> x = dummyHead;
+        int pos = -1;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && pos + x.span[i] <= index) {
+                pos += x.span[i];
+                x = x.next[i];
+            }
+            if (pos == index) {
+                return x;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * 随机生成新节点的层数，每一层有 1/4 的概率继续升高。
+     */
+    private int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+
+        for (Node<E> cur = dummyHead.next[0]; cur != null; cur = cur.next[0]) {
+            res.append(cur + "->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
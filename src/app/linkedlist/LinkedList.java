@@ -1,5 +1,7 @@
 package app.linkedlist;
 
+import java.util.NoSuchElementException;
+
 /**
  * LinkedList
  * 
@@ -31,8 +33,11 @@ package app.linkedlist;
  * 链表的复杂度主要是花费在查找节点上，而具体删除或者插入的操作是很方便的，这点和数组不同，数组体现在查找特别快，但是删除或者插入比较麻烦。
  * 
  * 链表的增删改查操作可以尝试使用递归实现。
+ *
+ * 需要遍历整个链表并且边遍历边修改时，使用 cursor() 得到的游标，每一步都是 O(1) 的，整个遍历是 O(n) 的；
+ * 而在循环中使用 get(i)、remove(i)，每一步都要从头查找，整个遍历是 O(n^2) 的。
  */
-public class LinkedList<E> {
+public class LinkedList<E> implements List<E>, Iterable<E> {
 
     /**
      * Node
@@ -79,6 +84,7 @@ public class LinkedList<E> {
      * 获取链表中元素的个数。
      * @return
      */
+    @Override
     public int getSize() {
         return size;
     }
@@ -87,6 +93,7 @@ public class LinkedList<E> {
      * 链表是否为空。
      * @return
      */
+    @Override
     public boolean isEmpty() {
         return size == 0;
     }
@@ -97,6 +104,7 @@ public class LinkedList<E> {
      * @param index
      * @param e
      */
+    @Override
     public void add(int index, E e) {
         if (index < 0 || index > size) {
             throw new IllegalArgumentException("Add failed. Illegal index.");
@@ -133,6 +141,7 @@ public class LinkedList<E> {
      * 为链表头添加一个节点。
      * 对于链表来讲，在头部添加一个节点是最容易的。
      */
+    @Override
     public void addFirst(E e) {
         // Node node = new Node(e, head);
         // head = node;
@@ -145,6 +154,7 @@ public class LinkedList<E> {
      * 在链表末尾添加元素。
      * @param e
      */
+    @Override
     public void addLast(E e) {
         add(size, e);
     }
@@ -155,6 +165,7 @@ public class LinkedList<E> {
      * @param index
      * @return
      */
+    @Override
     public E get(int index) {
 
         if (index < 0 || index >= size) {
@@ -169,10 +180,12 @@ public class LinkedList<E> {
         return cur.e;
     }
 
+    @Override
     public E getFirst() {
         return get(0);
     }
 
+    @Override
     public E getLast() {
         return get(size - 1);
     }
@@ -183,6 +196,7 @@ public class LinkedList<E> {
      * @param index
      * @param e
      */
+    @Override
     public void set(int index, E e) {
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Set failed. Illegal index.");
@@ -202,6 +216,7 @@ public class LinkedList<E> {
      * @param e
      * @return
      */
+    @Override
     public boolean contains(E e) {
 
         Node cur = dummyHead.next;
@@ -229,6 +244,7 @@ public class LinkedList<E> {
      * @param index
      * @return
      */
+    @Override
     public E remove(int index) {
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("Remove failed. Illegal index.");
@@ -248,29 +264,115 @@ public class LinkedList<E> {
         return delNode.e;
     }
 
+    @Override
     public E removeFirst() {
         return remove(0);
     }
 
+    @Override
     public E removeLast() {
         return remove(size - 1);
     }
 
     // 从链表中删除元素 e
+    @Override
     public void removeElements(E e) {
-        
-        Node prev = dummyHead;
-        while (prev.next != null) {
-            if (prev.next.e.equals(e)) {
-                break;
+        Cursor<E> cursor = cursor();
+        while (cursor.hasNext()) {
+            if (cursor.next().equals(e)) {
+                cursor.remove();
+                return;
             }
+        }
+    }
+
+    /**
+     * 获取一个从链表头开始的游标，通过游标遍历和修改链表，每一步都是 O(1) 的。
+     * 使用游标期间不要通过链表的其他方法修改链表。
+     * @return
+     */
+    public Cursor<E> cursor() {
+        return new LinkedListCursor();
+    }
+
+    @Override
+    public Cursor<E> iterator() {
+        return cursor();
+    }
+
+    /**
+     * 游标记录当前元素所在的节点 cur，以及它前面的节点 prev，这样删除当前元素时不需要再从头查找它前面的节点。
+     * 没有当前元素时 cur 为 null，此时游标位于 prev 之后。
+     */
+    private class LinkedListCursor implements Cursor<E> {
+        private Node prev;
+        private Node cur;
+
+        public LinkedListCursor() {
+            prev = dummyHead;
+            cur = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position().next != null;
+        }
+
+        @Override
+        public E next() {
+            Node pos = position();
+            if (pos.next == null) {
+                throw new NoSuchElementException();
+            }
+
+            prev = pos;
+            cur = pos.next;
+            return cur.e;
+        }
+
+        @Override
+        public void remove() {
+            if (cur == null) {
+                throw new IllegalStateException("Remove failed. No current element.");
+            }
+
+            prev.next = cur.next;
+            cur.next = null;
+            cur = null;
+            size--;
+        }
+
+        @Override
+        public void set(E e) {
+            if (cur == null) {
+                throw new IllegalStateException("Set failed. No current element.");
+            }
+
+            cur.e = e;
+        }
+
+        @Override
+        public void insertBefore(E e) {
+            // 插入到 prev 之后，新节点成为当前元素前面的节点。
+            prev.next = new Node(e, prev.next);
             prev = prev.next;
+            size++;
         }
 
-        if (prev.next != null) {
-            Node delNode = prev.next;
-            prev.next = delNode.next;
-            delNode.next = null;
+        @Override
+        public void insertAfter(E e) {
+            Node pos = position();
+            pos.next = new Node(e, pos.next);
+            prev = pos;
+            cur = pos.next;
+            size++;
+        }
+
+        /**
+         * 游标所在的节点，下一个元素就是这个节点的下一个节点。
+         */
+        private Node position() {
+            return cur != null ? cur : prev;
         }
     }
 
@@ -279,10 +381,8 @@ public class LinkedList<E> {
         
         StringBuilder res = new StringBuilder();
 
-        Node cur = dummyHead.next;
-        while (cur != null) {
-            res.append(cur + "->");
-            cur = cur.next;
+        for (E e : this) {
+            res.append(e + "->");
         }
 
         res.append("NULL");
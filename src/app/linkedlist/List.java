@@ -0,0 +1,77 @@
+package app.linkedlist;
+
+/**
+ * List
+ * 线性表。
+ *
+ * 链表在底层可以有不同的实现方式，比如 LinkedList 是只有虚拟头节点的单向链表，在链表头操作是 O(1) 的，在链表尾操作需要遍历整个链表；
+ * DoublyLinkedList 是同时有虚拟头节点和虚拟尾节点的双向链表，在两端操作都是 O(1) 的。
+ * 和动态数组一样，对于「线性表」我们定义为接口，栈、集合等基于链表的数据结构就可以选择底层使用哪种实现。
+ */
+public interface List<E> {
+
+    /**
+     * 获取元素的个数。
+     * @return 元素的个数。
+     */
+    int getSize();
+
+    /**
+     * 是否为空。
+     * @return 是否为空。
+     */
+    boolean isEmpty();
+
+    /**
+     * 在指定 index 位置插入新的元素 e。
+     * @param index
+     * @param e
+     */
+    void add(int index, E e);
+
+    void addFirst(E e);
+
+    void addLast(E e);
+
+    /**
+     * 获得 index 位置的元素。
+     * @param index
+     * @return
+     */
+    E get(int index);
+
+    E getFirst();
+
+    E getLast();
+
+    /**
+     * 更新 index 位置的元素。
+     * @param index
+     * @param e
+     */
+    void set(int index, E e);
+
+    /**
+     * 查找是否有元素 e。
+     * @param e
+     * @return
+     */
+    boolean contains(E e);
+
+    /**
+     * 删除 index 位置的元素，并返回所删除的元素。
+     * @param index
+     * @return
+     */
+    E remove(int index);
+
+    E removeFirst();
+
+    E removeLast();
+
+    /**
+     * 删除元素 e。
+     * @param e
+     */
+    void removeElements(E e);
+}
@@ -1,11 +1,21 @@
 package app.linkedlist;
 
+import java.util.Random;
+
 /**
  * Main
  */
 public class Main {
 
     public static void main(String[] args) {
+        test1();
+        test2();
+        test3();
+        test4();
+        test5();
+    }
+
+    private static void test1() {
         LinkedList<Integer> linkedList = new LinkedList<>();
 
          for (int i = 0; i < 5; i++) {
@@ -24,4 +34,132 @@ public class Main {
          linkedList.removeLast();
          System.out.println(linkedList);
     }
-}
\ No newline at end of file
+
+    private static void test2() {
+        // 在链表尾部添加和删除元素，LinkedList 每次都要遍历整个链表，DoublyLinkedList 是 O(1) 的。
+        int opCount = 20_000;
+
+        double time1 = testList(new LinkedList<>(), opCount);
+        System.out.println("LinkedList, time: " + time1 + "s");
+
+        double time2 = testList(new DoublyLinkedList<>(), opCount);
+        System.out.println("DoublyLinkedList, time: " + time2 + "s");
+    }
+
+    private static double testList(List<Integer> list, int opCount) {
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < opCount; i++) {
+            list.addLast(i);
+        }
+        for (int i = 0; i < opCount; i++) {
+            list.getLast();
+            list.removeLast();
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    private static void test3() {
+        // 遍历查找和在中间插入，UnrolledLinkedList 每个节点存放一个数组，大部分内存访问都是连续的。
+        int n = 30_000;
+        int opCount = 2_000;
+
+        double time1 = testScan(new DoublyLinkedList<>(), n, opCount);
+        System.out.println("DoublyLinkedList, time: " + time1 + "s");
+
+        double time2 = testScan(new UnrolledLinkedList<>(), n, opCount);
+        System.out.println("UnrolledLinkedList, time: " + time2 + "s");
+    }
+
+    private static double testScan(List<Integer> list, int n, int opCount) {
+        Random random = new Random();
+        for (int i = 0; i < n; i++) {
+            // 打乱节点在内存中的顺序，更接近链表长时间使用之后的状态。
+            list.add(random.nextInt(list.getSize() + 1), i);
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < opCount; i++) {
+            list.contains(-1);
+            list.add(random.nextInt(list.getSize() + 1), i);
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    private static void test4() {
+        // 在随机位置读取、插入和删除，IndexableSkipList 按索引访问是 O(log n) 的。
+        int n = 100_000;
+        int opCount = 5_000;
+
+        double time1 = testRandomIndex(new DoublyLinkedList<>(), n, opCount);
+        System.out.println("DoublyLinkedList, time: " + time1 + "s");
+
+        double time2 = testRandomIndex(new IndexableSkipList<>(), n, opCount);
+        System.out.println("IndexableSkipList, time: " + time2 + "s");
+    }
+
+    private static double testRandomIndex(List<Integer> list, int n, int opCount) {
+        for (int i = 0; i < n; i++) {
+            list.addLast(i);
+        }
+
+        long startTime = System.nanoTime();
+
+        Random random = new Random();
+        for (int i = 0; i < opCount; i++) {
+            list.get(random.nextInt(list.getSize()));
+            list.add(random.nextInt(list.getSize() + 1), i);
+            list.remove(random.nextInt(list.getSize()));
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    private static void test5() {
+        // 遍历整个链表，删除偶数，奇数乘以 2。
+        int n = 20_000;
+
+        LinkedList<Integer> list1 = new LinkedList<>();
+        LinkedList<Integer> list2 = new LinkedList<>();
+        for (int i = 0; i < n; i++) {
+            list1.addFirst(i);
+            list2.addFirst(i);
+        }
+
+        long startTime = System.nanoTime();
+        int i = 0;
+        while (i < list1.getSize()) {
+            int e = list1.get(i);
+            if (e % 2 == 0) {
+                list1.remove(i);
+            } else {
+                list1.set(i, e * 2);
+                i++;
+            }
+        }
+        long endTime = System.nanoTime();
+        System.out.println("LinkedList get/remove, time: " + (endTime - startTime) / 1_000_000_000.0 + "s");
+
+        startTime = System.nanoTime();
+        Cursor<Integer> cursor = list2.cursor();
+        while (cursor.hasNext()) {
+            int e = cursor.next();
+            if (e % 2 == 0) {
+                cursor.remove();
+            } else {
+                cursor.set(e * 2);
+            }
+        }
+        endTime = System.nanoTime();
+        System.out.println("LinkedList cursor, time: " + (endTime - startTime) / 1_000_000_000.0 + "s, " + list1.toString().equals(list2.toString()));
+    }
+}
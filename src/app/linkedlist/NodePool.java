@@ -0,0 +1,99 @@
+package app.linkedlist;
+
+/**
+ * NodePool
+ * 使用数组模拟链表时，节点编号的分配和回收。
+ *
+ * ArenaLinkedList、ArenaLinkedListQueue、ArenaLinkedListMap 都不创建节点对象，而是用编号表示节点：
+ * 节点 i 的下一个节点是 next(i)，NIL 表示没有下一个节点（相当于 null），元素存放在使用者自己的数组中，下标同样是 i。
+ *
+ * 释放的节点通过 next 串成一个空闲链表，分配时优先从空闲链表中取，其次使用从未使用过的节点，都没有时 next 数组容量翻倍。
+ * 所以在节点数稳定之后，分配和释放都不会再分配任何内存。
+ *
+ * 扩容时节点的编号不变。使用者在 allocate 返回的编号超出自己数组的长度时，把数组扩容到 getCapacity() 即可。
+ *
+ * 时间复杂度：
+ * int allocate()       O(1) 均摊
+ * void release(int)    O(1)
+ * int next(int)        O(1)
+ * void setNext(int)    O(1)
+ */
+public class NodePool {
+
+    // 表示没有节点，相当于 null。
+    public static final int NIL = -1;
+
+    private int[] next;
+    // 空闲链表的头。
+    private int free;
+    // 曾经使用过的节点数，[used, next.length) 中的节点从未使用过。
+    private int used;
+
+    /**
+     * 构造函数。
+     * @param capacity 不扩容时能够分配的节点数。
+     */
+    public NodePool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+
+        next = new int[capacity];
+        free = NIL;
+        used = 0;
+    }
+
+    /**
+     * 获取不扩容时能够分配的节点数，使用者存放元素的数组应该和它一样长。
+     * @return
+     */
+    public int getCapacity() {
+        return next.length;
+    }
+
+    /**
+     * 取出一个空闲的节点，它的下一个节点为 NIL。
+     * @return 节点的编号，可能等于扩容之前的 getCapacity()。
+     */
+    public int allocate() {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = next[node];
+        } else {
+            if (used == next.length) {
+                resize(2 * next.length);
+            }
+            node = used++;
+        }
+
+        next[node] = NIL;
+        return node;
+    }
+
+    /**
+     * 把节点放回空闲链表，使用者需要先把节点从自己的链表中摘掉，并清空节点中的元素。
+     * @param node
+     */
+    public void release(int node) {
+        next[node] = free;
+        free = node;
+    }
+
+    public int next(int node) {
+        return next[node];
+    }
+
+    public void setNext(int node, int nextNode) {
+        next[node] = nextNode;
+    }
+
+    /**
+     * 扩容，节点的编号不变，所以只需要把数组整体拷贝过去。
+     */
+    private void resize(int newCapacity) {
+        int[] newNext = new int[newCapacity];
+        System.arraycopy(next, 0, newNext, 0, used);
+        next = newNext;
+    }
+}
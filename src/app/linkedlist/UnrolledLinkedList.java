@@ -0,0 +1,361 @@
+package app.linkedlist;
+
+import java.util.Arrays;
+
+/**
+ * UnrolledLinkedList
+ * 展开链表。
+ *
+ * LinkedList 的每个节点只存放一个元素，每个元素都要额外付出一个节点对象和一个 next 引用的代价，
+ * 遍历时每走一步都要顺着引用跳到内存中的另一个位置，很难利用 CPU 缓存。
+ *
+ * 展开链表的每个节点存放一个小数组，最多存放 nodeCapacity 个元素：
+ *
+ *   [0, 1, 2, _] <-> [3, 4, _, _] <-> [5, 6, 7, 8]
+ *
+ * 节点内部的元素在内存中是连续的，遍历时大部分访问都是顺序的，节点的开销也被节点中的元素分摊了。
+ * 在中间插入元素时，只需要在一个节点内部挪动元素，节点满了就把它拆分成两个各有一半元素的节点；
+ * 删除元素后如果节点中的元素少于 nodeCapacity / 4，就和下一个节点合并，或者从下一个节点借一些元素，
+ * 这样每个节点（除了最后一个）都至少有 nodeCapacity / 4 个元素。
+ *
+ * 时间复杂度（B 为 nodeCapacity）：
+ * addFirst(e)    O(B)
+ * addLast(e)     O(1)
+ * add(e)         O(n / B + B)
+ *
+ * removeFirst(e) O(B)
+ * removeLast(e)  O(1)
+ * remove(e)      O(n / B + B)
+ *
+ * set(index, e)  O(n / B)
+ *
+ * get(index)     O(n / B)
+ * contains(e)    O(n)
+ */
+public class UnrolledLinkedList<E> implements List<E> {
+
+    private class Node {
+        public Object[] items;
+        public int count;
+        public Node prev, next;
+
+        public Node() {
+            items = new Object[nodeCapacity];
+            count = 0;
+        }
+    }
+
+    // 和 DoublyLinkedList 一样使用虚拟头节点和虚拟尾节点，虚拟节点中不存放元素。
+    private Node dummyHead, dummyTail;
+    private final int nodeCapacity;
+    private int nodeCount;
+    private int size;
+    // 最近一次调用 node 方法时，index 在找到的节点中的位置。
+    private int nodeOffset;
+
+    /**
+     * 构造函数。
+     * @param nodeCapacity 每个节点最多存放的元素个数，至少为 4。
+     */
+    public UnrolledLinkedList(int nodeCapacity) {
+        if (nodeCapacity < 4) {
+            throw new IllegalArgumentException("Node capacity must be at least 4.");
+        }
+
+        this.nodeCapacity = nodeCapacity;
+        dummyHead = new Node();
+        dummyTail = new Node();
+        dummyHead.next = dummyTail;
+        dummyTail.prev = dummyHead;
+        nodeCount = 0;
+        size = 0;
+    }
+
+    /**
+     * 默认每个节点存放 64 个元素。
+     */
+    public UnrolledLinkedList() {
+        this(64);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取节点的个数。
+     * @return
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public void add(int index, E e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Add failed. Illegal index.");
+        }
+
+        if (index == size) {
+            addLast(e);
+            return;
+        }
+
+        Node node = node(index);
+        int offset = nodeOffset;
+
+        if (node.count == nodeCapacity) {
+            // 节点满了，把后一半元素拆分到一个新节点中。
+            Node newNode = linkAfter(node);
+            int half = nodeCapacity / 2;
+            System.arraycopy(node.items, half, newNode.items, 0, nodeCapacity - half);
+            Arrays.fill(node.items, half, nodeCapacity, null);
+            newNode.count = nodeCapacity - half;
+            node.count = half;
+
+            if (offset > half) {
+                node = newNode;
+                offset -= half;
+            }
+        }
+
+        System.arraycopy(node.items, offset, node.items, offset + 1, node.count - offset);
+        node.items[offset] = e;
+        node.count++;
+        size++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        add(0, e);
+    }
+
+    /**
+     * 在末尾添加元素。
+     * 最后一个节点满了时直接添加一个新的节点，而不是拆分，这样连续添加的元素会把每个节点都填满。
+     * @param e
+     */
+    @Override
+    public void addLast(E e) {
+        Node node = dummyTail.prev;
+        if (node == dummyHead || node.count == nodeCapacity) {
+            node = linkAfter(node);
+        }
+
+        node.items[node.count++] = e;
+        size++;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Get failed. Illegal index.");
+        }
+
+        Node node = node(index);
+        return element(node, nodeOffset);
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetFirst failed. List is empty.");
+        }
+
+        return element(dummyHead.next, 0);
+    }
+
+    @Override
+    public E getLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("GetLast failed. List is empty.");
+        }
+
+        Node last = dummyTail.prev;
+        return element(last, last.count - 1);
+    }
+
+    @Override
+    public void set(int index, E e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Set failed. Illegal index.");
+        }
+
+        node(index).items[nodeOffset] = e;
+    }
+
+    /**
+     * 依次扫描每个节点中的数组。
+     * @param e
+     * @return
+     */
+    @Override
+    public boolean contains(E e) {
+        for (Node node = dummyHead.next; node != dummyTail; node = node.next) {
+            Object[] items = node.items;
+            for (int i = 0; i < node.count; i++) {
+                if (items[i].equals(e)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Remove failed. Illegal index.");
+        }
+
+        Node node = node(index);
+        return remove(node, nodeOffset);
+    }
+
+    @Override
+    public E removeFirst() {
+        if (size == 0) {
+            throw new IllegalArgumentException("RemoveFirst failed. List is empty.");
+        }
+
+        return remove(dummyHead.next, 0);
+    }
+
+    @Override
+    public E removeLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("RemoveLast failed. List is empty.");
+        }
+
+        Node last = dummyTail.prev;
+        return remove(last, last.count - 1);
+    }
+
+    /**
+     * 删除第一个等于 e 的元素。
+     * @param e
+     */
+    @Override
+    public void removeElements(E e) {
+        for (Node node = dummyHead.next; node != dummyTail; node = node.next) {
+            Object[] items = node.items;
+            for (int i = 0; i < node.count; i++) {
+                if (items[i].equals(e)) {
+                    remove(node, i);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除节点 node 中 offset 位置的元素，如果节点中的元素太少，和下一个节点合并或者从下一个节点借一些元素。
+     */
+    private E remove(Node node, int offset) {
+        E ret = element(node, offset);
+
+        System.arraycopy(node.items, offset + 1, node.items, offset, node.count - offset - 1);
+        node.items[--node.count] = null;
+        size--;
+
+        if (node.count == 0) {
+            unlink(node);
+        } else if (node.count < nodeCapacity / 4 && node.next != dummyTail) {
+            Node next = node.next;
+            if (node.count + next.count <= nodeCapacity / 2) {
+                // 合并之后节点不超过半满，把下一个节点整体并入当前节点。
+                System.arraycopy(next.items, 0, node.items, node.count, next.count);
+                node.count += next.count;
+                unlink(next);
+            } else {
+                // 从下一个节点借一些元素，让两个节点中的元素个数大致相等。
+                int move = (next.count - node.count) / 2;
+                System.arraycopy(next.items, 0, node.items, node.count, move);
+                System.arraycopy(next.items, move, next.items, 0, next.count - move);
+                Arrays.fill(next.items, next.count - move, next.count, null);
+                node.count += move;
+                next.count -= move;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * 找到 index 所在的节点，index 在前半部分时从头向后遍历节点，否则从尾向前遍历节点。
+     * index 在这个节点中的位置记录在 nodeOffset 中。
+     */
+    private Node node(int index) {
+        if (index < size / 2) {
+            Node node = dummyHead.next;
+            int offset = index;
+            while (offset >= node.count) {
+                offset -= node.count;
+                node = node.next;
+            }
+            nodeOffset = offset;
+            return node;
+        } else {
+            Node node = dummyTail.prev;
+            int offset = index - (size - node.count);
+            while (offset < 0) {
+                node = node.prev;
+                offset += node.count;
+            }
+            nodeOffset = offset;
+            return node;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E element(Node node, int offset) {
+        return (E) node.items[offset];
+    }
+
+    /**
+     * 在节点 prev 之后添加一个空节点。
+     */
+    private Node linkAfter(Node prev) {
+        Node node = new Node();
+        node.prev = prev;
+        node.next = prev.next;
+        prev.next.prev = node;
+        prev.next = node;
+        nodeCount++;
+        return node;
+    }
+
+    private void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        nodeCount--;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+
+        res.append("NULL<->");
+        for (Node node = dummyHead.next; node != dummyTail; node = node.next) {
+            res.append('[');
+            for (int i = 0; i < node.count; i++) {
+                res.append(node.items[i]);
+                if (i != node.count - 1) {
+                    res.append(", ");
+                }
+            }
+            res.append("]<->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package app.map;
+
+import app.linkedlist.NodePool;
+import java.util.Arrays;
+
+/**
+ * ArenaLinkedListMap
+ *
+ * 和 LinkedListMap 一样使用链表存放键值对，但是不创建节点对象。
+ * 节点用编号表示：节点 i 的键是 keys[i]，值是 values[i]，下一个节点由 NodePool 记录，和 ArenaLinkedList 相同。
+ * 删除的节点放回 NodePool 的空闲链表，添加时优先从空闲链表中取节点，所以反复添加、删除不会再分配内存。
+ *
+ * 0 号节点是虚拟头节点。各个操作的时间复杂度和 LinkedListMap 相同。
+ */
+public class ArenaLinkedListMap<K, V> implements Map<K, V> {
+
+    private static final int NIL = NodePool.NIL;
+
+    private final NodePool pool;
+    private K[] keys;
+    private V[] values;
+    // 虚拟头节点。
+    private final int dummyHead;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public ArenaLinkedListMap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        pool = new NodePool(capacity + 1);
+        keys = (K[]) new Object[capacity + 1];
+        values = (V[]) new Object[capacity + 1];
+        dummyHead = pool.allocate();
+        size = 0;
+    }
+
+    public ArenaLinkedListMap() {
+        this(10);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 私有的辅助函数，传入一个 key，返回对应的节点的编号。
+     * @param key
+     * @return 节点的编号，不存在时返回 NIL。
+     */
+    private int getNode(K key) {
+        for (int cur = pool.next(dummyHead); cur != NIL; cur = pool.next(cur)) {
+            if (keys[cur].equals(key)) {
+                return cur;
+            }
+        }
+        return NIL;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return getNode(key) != NIL;
+    }
+
+    @Override
+    public V get(K key) {
+        int node = getNode(key);
+        return node == NIL ? null : values[node];
+    }
+
+    @Override
+    public void add(K key, V value) {
+        int node = getNode(key);
+
+        if (node == NIL) {
+            node = allocate();
+            keys[node] = key;
+            values[node] = value;
+            pool.setNext(node, pool.next(dummyHead));
+            pool.setNext(dummyHead, node);
+            size++;
+        } else {
+            values[node] = value;
+        }
+    }
+
+    @Override
+    public void set(K key, V newValue) {
+        int node = getNode(key);
+
+        if (node == NIL) {
+            throw new IllegalArgumentException(key + "dosen't exist!");
+        }
+
+        values[node] = newValue;
+    }
+
+    @Override
+    public V remove(K key) {
+        int prev = dummyHead;
+
+        while (pool.next(prev) != NIL) {
+            if (keys[pool.next(prev)].equals(key)) {
+                break;
+            }
+            prev = pool.next(prev);
+        }
+
+        if (pool.next(prev) != NIL) {
+            int delNode = pool.next(prev);
+            V ret = values[delNode];
+            pool.setNext(prev, pool.next(delNode));
+
+            // 删除的节点放回空闲链表。
+            keys[delNode] = null;
+            values[delNode] = null;
+            pool.release(delNode);
+            size--;
+            return ret;
+        }
+
+        return null;
+    }
+
+    /**
+     * 从 NodePool 中取出一个节点，NodePool 扩容之后 keys 和 values 也跟着扩容，节点的编号不变。
+     */
+    private int allocate() {
+        int node = pool.allocate();
+        if (node >= keys.length) {
+            keys = Arrays.copyOf(keys, pool.getCapacity());
+            values = Arrays.copyOf(values, pool.getCapacity());
+        }
+        return node;
+    }
+}
@@ -0,0 +1,128 @@
+package app.queue;
+
+import app.linkedlist.NodePool;
+import java.util.Arrays;
+
+/**
+ * ArenaLinkedListQueue
+ *
+ * 和 LinkedListQueue 一样从链表尾入队、从链表头出队，但是不创建节点对象。
+ * 节点用编号表示：节点 i 的元素是 values[i]，下一个节点由 NodePool 记录，和 ArenaLinkedList 相同。
+ * 出队的节点放回 NodePool 的空闲链表，入队时优先从空闲链表中取节点。
+ *
+ * LinkedListQueue 每次入队都会创建一个 Node 对象，出队之后这个对象就成了垃圾；
+ * ArenaLinkedListQueue 在队列长度稳定之后，入队和出队都不会再分配任何内存。
+ */
+public class ArenaLinkedListQueue<E> implements Queue<E> {
+
+    private static final int NIL = NodePool.NIL;
+
+    private final NodePool pool;
+    private E[] values;
+    private int head, tail;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public ArenaLinkedListQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+
+        pool = new NodePool(capacity);
+        values = (E[]) new Object[capacity];
+        head = NIL;
+        tail = NIL;
+        size = 0;
+    }
+
+    public ArenaLinkedListQueue() {
+        this(10);
+    }
+
+    /**
+     * 获取不扩容时能够存放的元素个数。
+     * @return
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void enqueue(E e) {
+        int node = allocate();
+        values[node] = e;
+
+        if (tail == NIL) {
+            head = node;
+        } else {
+            pool.setNext(tail, node);
+        }
+        tail = node;
+        size++;
+    }
+
+    @Override
+    public E dequeue() {
+        if (isEmpty()) {
+            throw new IllegalArgumentException("Cannot dequeue from an empty queue.");
+        }
+
+        int retNode = head;
+        E ret = values[retNode];
+        head = pool.next(retNode);
+        if (head == NIL) {
+            tail = NIL;
+        }
+
+        // 出队的节点放回空闲链表。
+        values[retNode] = null;
+        pool.release(retNode);
+        size--;
+
+        return ret;
+    }
+
+    @Override
+    public E getFront() {
+        if (isEmpty()) {
+            throw new IllegalArgumentException("Queue is empty.");
+        }
+
+        return values[head];
+    }
+
+    /**
+     * 从 NodePool 中取出一个节点，NodePool 扩容之后 values 也跟着扩容，节点的编号不变。
+     */
+    private int allocate() {
+        int node = pool.allocate();
+        if (node >= values.length) {
+            values = Arrays.copyOf(values, pool.getCapacity());
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append("Queue: front ");
+
+        for (int cur = head; cur != NIL; cur = pool.next(cur)) {
+            res.append(values[cur] + "->");
+        }
+
+        res.append("NULL tail");
+
+        return res.toString();
+    }
+}
@@ -1,6 +1,8 @@
 package app.queue;
 
 import app.array.Array;
+import app.array.DynamicArray;
+import app.array.GrowthPolicy;
 
 /**
  * ArrayQueue
@@ -18,7 +20,7 @@ import app.array.Array;
  */
 public class ArrayQueue<E> implements Queue<E> {
 
-    private Array<E> array;
+    private DynamicArray<E> array;
 
     public ArrayQueue(int capacity) {
         array = new Array<>(capacity);
@@ -28,6 +30,18 @@ public class ArrayQueue<E> implements Queue<E> {
         array = new Array<>();
     }
 
+    public ArrayQueue(int capacity, GrowthPolicy growthPolicy) {
+        array = new Array<>(capacity, growthPolicy);
+    }
+
+    /**
+     * 指定底层使用的动态数组，比如使用 SegmentedArray 避免大容量时整体拷贝。
+     * @param array 底层的动态数组，已有的元素从队首到队尾排列。
+     */
+    public ArrayQueue(DynamicArray<E> array) {
+        this.array = array;
+    }
+
      /**
      * 队列的元素个数。
      */
@@ -51,6 +65,13 @@ public class ArrayQueue<E> implements Queue<E> {
         return array.getCapacity();
     }
 
+    /**
+     * 查看实现这个队列的动态数组改变容量的次数。
+     */
+    public int getResizeCount() {
+        return array.getResizeCount();
+    }
+
     /**
      * 入队。
      */
@@ -1,5 +1,8 @@
 package app.queue;
 
+import app.array.GrowthPolicy;
+import java.util.Arrays;
+
 /**
  * LoopQueue
  * 数组队列的问题在于，出队的时间复杂度过高，导致如果队列元素特别多的情况下，出队就比较耗时。
@@ -11,25 +14,85 @@ package app.queue;
  * E getFront()        O(1)
  * int getSize()       O(1)
  * boolean isEmpty()   O(1)
+ *
+ * 下标前进一步需要取模，取模是比较慢的除法运算。
+ * 使用 LoopQueue(capacity, true) 创建的队列，底层数组的长度总是 2 的幂，取模可以换成和 data.length - 1 做与运算。
+ * 此时容量（data.length - 1）是 2 的幂减一。
+ *
+ * enqueueAll 和 drainTo 批量地入队和出队，队列中的元素在数组中最多分成两段，所以最多只需要两次数组拷贝。
  */
 public class LoopQueue<E> implements Queue<E> {
     private E[] data;
     private int front, tail;
     private int size;
+    // 底层数组的长度是否总是 2 的幂，是的话使用与运算代替取模。
+    private final boolean powerOfTwo;
+    // 扩容和缩容的策略。
+    private GrowthPolicy growthPolicy = GrowthPolicy.doubling();
+    // 改变容量的次数。
+    private int resizeCount;
 
-    @SuppressWarnings("unchecked")
     public LoopQueue(int capacity) {
+        this(capacity, false);
+    }
+
+    public LoopQueue() {
+        this(10);
+    }
 
+    public LoopQueue(int capacity, boolean powerOfTwo) {
+        this(capacity, powerOfTwo, GrowthPolicy.doubling());
+    }
+
+    public LoopQueue(int capacity, GrowthPolicy growthPolicy) {
+        this(capacity, false, growthPolicy);
+    }
+
+    /**
+     * 构造函数。
+     * @param capacity 初始容量。
+     * @param powerOfTwo 为 true 时，底层数组的长度总是 2 的幂，容量会向上取到 2 的幂减一。
+     *                   growthPolicy 给出的新容量同样会向上取到 2 的幂减一。
+     * @param growthPolicy 扩容和缩容的策略。
+     */
+    @SuppressWarnings("unchecked")
+    public LoopQueue(int capacity, boolean powerOfTwo, GrowthPolicy growthPolicy) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        setGrowthPolicy(growthPolicy);
+        this.powerOfTwo = powerOfTwo;
         // 创建的数组容量比用户期望的多一个，因为循环队列中，我们会有意识的浪费掉一个空间。
         // 因为我们通常认为 front == tail 的时候是队列为空，对于循环队列，我们如果不让出一个空间，那么这个表达式也有可能是队列元素占满的情况。
-        data = (E[])new Object[capacity + 1];
+        data = (E[])new Object[dataLength(capacity)];
         front = 0;
         tail = 0;
         size = 0;
     }
 
-    public LoopQueue() {
-        this(10);
+    public GrowthPolicy getGrowthPolicy() {
+        return growthPolicy;
+    }
+
+    /**
+     * 设置扩容和缩容的策略。
+     * 对于元素个数频繁大起大落的队列，可以设置为从不缩容或者更低的缩容阈值，避免反复分配内存。
+     * @param growthPolicy
+     */
+    public void setGrowthPolicy(GrowthPolicy growthPolicy) {
+        if (growthPolicy == null) {
+            throw new IllegalArgumentException("Growth policy can not be null.");
+        }
+        this.growthPolicy = growthPolicy;
+    }
+
+    /**
+     * 获得改变容量的次数。
+     * @return
+     */
+    public int getResizeCount() {
+        return resizeCount;
     }
 
     /**
@@ -63,12 +126,12 @@ public class LoopQueue<E> implements Queue<E> {
     public void enqueue(E e) {
 
         // 判断队列是否满了
-        if ((tail + 1) % data.length == front) {
-            resize(getCapacity() * 2);
+        if (wrap(tail + 1) == front) {
+            resize(growthPolicy.grow(getCapacity(), size + 1));
         }
 
         data[tail] = e;
-        tail = (tail + 1) % data.length;
+        tail = wrap(tail + 1);
         size++;
     }
 
@@ -82,17 +145,62 @@ public class LoopQueue<E> implements Queue<E> {
         }
         E ret = data[front];
         data[front] = null;
-        front = (front + 1) % data.length;
+        front = wrap(front + 1);
         size--;
 
-        // 缩容。
-        if (size == getCapacity() / 4 && getCapacity() / 2 != 0) {
-            resize(getCapacity() / 2);
-        }
+        shrinkIfNeeded();
 
         return ret;
     }
 
+    /**
+     * 把 src 中从 off 开始的 len 个元素依次入队，最多扩容一次。
+     * 队尾之后的空闲位置最多分成两段（数组末尾一段，数组开头一段），所以最多两次数组拷贝。
+     * @param src
+     * @param off
+     * @param len
+     */
+    public void enqueueAll(E[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length) {
+            throw new IllegalArgumentException("EnqueueAll failed. Range is illegal.");
+        }
+
+        if (size + len > getCapacity()) {
+            resize(growthPolicy.grow(getCapacity(), size + len));
+        }
+
+        int first = Math.min(len, data.length - tail);
+        System.arraycopy(src, off, data, tail, first);
+        System.arraycopy(src, off + first, data, 0, len - first);
+        tail = wrap(tail + len);
+        size += len;
+    }
+
+    /**
+     * 连续出队最多 max 个元素，按出队的顺序存放到 dst 的开头，最多两次数组拷贝。
+     * @param dst
+     * @param max
+     * @return 出队的元素个数，是 size、max 和 dst.length 中的最小值。
+     */
+    public int drainTo(E[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("DrainTo failed. Max is illegal.");
+        }
+
+        int n = Math.min(size, Math.min(max, dst.length));
+        int first = Math.min(n, data.length - front);
+        System.arraycopy(data, front, dst, 0, first);
+        System.arraycopy(data, 0, dst, first, n - first);
+        Arrays.fill(data, front, front + first, null);
+        Arrays.fill(data, 0, n - first, null);
+        front = wrap(front + n);
+        size -= n;
+
+        shrinkIfNeeded();
+
+        return n;
+    }
+
     @Override
     public E getFront() {
         if (isEmpty()) {
@@ -101,19 +209,45 @@ public class LoopQueue<E> implements Queue<E> {
         return data[front];
     }
 
+    /**
+     * 下标 i 在循环数组中对应的位置，i 的范围是 [0, 2 * data.length)。
+     */
+    private int wrap(int i) {
+        return powerOfTwo ? i & (data.length - 1) : i % data.length;
+    }
+
+    /**
+     * 容量为 capacity 时底层数组的长度，2 的幂模式下向上取到 2 的幂。
+     */
+    private int dataLength(int capacity) {
+        int length = capacity + 1;
+        if (powerOfTwo && Integer.bitCount(length) != 1) {
+            length = Integer.highestOneBit(length) << 1;
+        }
+        return length;
+    }
+
+    private void shrinkIfNeeded() {
+        int newCapacity = growthPolicy.shrink(getCapacity(), size);
+        if (newCapacity < getCapacity() && dataLength(newCapacity) < data.length) {
+            resize(newCapacity);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void resize(int newCapacity) {
-        E[] newData = (E[])new Object[newCapacity + 1];
+        E[] newData = (E[])new Object[dataLength(newCapacity)];
 
-        // 第一种遍历循环队列的所有元素的方式。
-        for (int i = 0; i < size; i++) {
-            // 当扩容或者缩容的时候，原本 front 不为 0 的队列被重新规整为 front 为 0 的队列了
-            newData[i] = data[(i + front) % data.length];
-        }
+        // 当扩容或者缩容的时候，原本 front 不为 0 的队列被重新规整为 front 为 0 的队列了。
+        // 元素在原数组中最多分成两段：[front, data.length) 和 [0, tail)，分别整段拷贝。
+        int first = Math.min(size, data.length - front);
+        System.arraycopy(data, front, newData, 0, first);
+        System.arraycopy(data, 0, newData, first, size - first);
 
         data = newData;
         front = 0;
         tail = size;
+        resizeCount++;
     }
  
     /**
@@ -125,10 +259,10 @@ public class LoopQueue<E> implements Queue<E> {
         res.append(String.format("QUeue: size = %d, capacity = %d\n", size, getCapacity()));
         res.append("front [");
 
-        // 第二种遍历循环队列中所有元素的方式。
-        for (int i = front; i != tail; i = (i + 1) % data.length) {
+        // 遍历循环队列中所有元素的方式。
+        for (int i = front; i != tail; i = wrap(i + 1)) {
             res.append(data[i]);
-            if ((i + 1) % data.length != tail) {
+            if (wrap(i + 1) != tail) {
                 res.append(", ");
             }
         }
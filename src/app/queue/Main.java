@@ -1,15 +1,23 @@
 package app.queue;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Main
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         test1();
         test2();
+        test3();
+        test4();
+        test5();
+        test6();
     }
 
     private static void test1() {
@@ -67,4 +75,416 @@ public class Main {
 
         return (endTime - startTime) / 1_000_000_000.0;
     }
-}
\ No newline at end of file
+
+    private static void test3() {
+        // 队列长度稳定之后反复入队、出队，对比每次操作分配的内存。
+        int length = 1_000;
+        int opCount = 10_000_000;
+
+        LinkedListQueue<Integer> linkedListQueue = new LinkedListQueue<>();
+        System.out.println("LinkedListQueue, bytes/op: " + testAllocation(linkedListQueue, length, opCount));
+
+        ArenaLinkedListQueue<Integer> arenaQueue = new ArenaLinkedListQueue<>();
+        System.out.println("ArenaLinkedListQueue, bytes/op: " + testAllocation(arenaQueue, length, opCount));
+    }
+
+    /**
+     * 先让 q 中有 length 个元素，再运行 opCount 次入队、出队，返回平均每次操作在当前线程中分配的字节数。
+     * 入队的元素提前创建好，所以统计到的只有队列本身分配的内存。
+     * @param q
+     * @param length
+     * @param opCount
+     * @return
+     */
+    private static double testAllocation(Queue<Integer> q, int length, int opCount) {
+        Integer[] elements = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            elements[i] = i;
+            q.enqueue(elements[i]);
+        }
+
+        long startBytes = allocatedBytes();
+
+        for (int i = 0; i < opCount; i++) {
+            q.enqueue(q.dequeue());
+        }
+
+        long endBytes = allocatedBytes();
+
+        return (double) (endBytes - startBytes) / opCount;
+    }
+
+    private static void test4() {
+        // 对比 LoopQueue 默认的取模模式、2 的幂模式，以及 2 的幂模式下批量入队和出队。
+        int length = 1_000;
+        int opCount = 20_000_000;
+        int batch = 64;
+
+        Integer[] elements = new Integer[batch];
+        for (int i = 0; i < batch; i++) {
+            elements[i] = i;
+        }
+
+        LoopQueue<Integer> moduloQueue = new LoopQueue<>(length);
+        double time1 = testSteadyQueue(moduloQueue, elements, length, opCount);
+        System.out.println("LoopQueue modulo, time: " + time1 + "s");
+
+        LoopQueue<Integer> maskQueue = new LoopQueue<>(length, true);
+        double time2 = testSteadyQueue(maskQueue, elements, length, opCount);
+        System.out.println("LoopQueue power of two, time: " + time2 + "s");
+
+        LoopQueue<Integer> batchQueue = new LoopQueue<>(length, true);
+        for (int i = 0; i < length; i++) {
+            batchQueue.enqueue(elements[i % batch]);
+        }
+        Integer[] buffer = new Integer[batch];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < opCount; i += batch) {
+            int n = batchQueue.drainTo(buffer, batch);
+            batchQueue.enqueueAll(buffer, 0, n);
+        }
+        long endTime = System.nanoTime();
+        System.out.println("LoopQueue power of two, batch " + batch + ", time: " + (endTime - startTime) / 1_000_000_000.0 + "s");
+    }
+
+    /**
+     * 先让 q 中有 length 个元素，再运行 opCount 次出队、入队，队列长度保持不变。
+     * @return 运行 opCount 次出队、入队所需要的时间，单位：秒
+     */
+    private static double testSteadyQueue(Queue<Integer> q, Integer[] elements, int length, int opCount) {
+        for (int i = 0; i < length; i++) {
+            q.enqueue(elements[i % elements.length]);
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < opCount; i++) {
+            q.enqueue(q.dequeue());
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    private static void test5() throws InterruptedException {
+        // 一个生产者线程和一个消费者线程之间传递数据，对比加锁的 LoopQueue 和无锁的 SpscQueue。
+        int opCount = 2_000_000;
+        int batch = 64;
+        Integer element = 1;
+
+        LoopQueue<Integer> loopQueue = new LoopQueue<>(1024, true);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < opCount; ) {
+                synchronized (loopQueue) {
+                    if (loopQueue.getSize() < loopQueue.getCapacity()) {
+                        loopQueue.enqueue(element);
+                        i++;
+                        continue;
+                    }
+                }
+                Thread.yield();
+            }
+        });
+        long startTime = System.nanoTime();
+        producer.start();
+        for (int i = 0; i < opCount; ) {
+            synchronized (loopQueue) {
+                if (!loopQueue.isEmpty()) {
+                    loopQueue.dequeue();
+                    i++;
+                    continue;
+                }
+            }
+            Thread.yield();
+        }
+        producer.join();
+        long endTime = System.nanoTime();
+        System.out.println("synchronized LoopQueue: " + (long) (opCount / ((endTime - startTime) / 1_000_000_000.0)) + " ops/s");
+
+        SpscQueue<Integer> spscQueue = new SpscQueue<>(1024);
+        producer = new Thread(() -> {
+            for (int i = 0; i < opCount; i++) {
+                spscQueue.enqueue(element);
+            }
+        });
+        startTime = System.nanoTime();
+        producer.start();
+        for (int i = 0; i < opCount; i++) {
+            spscQueue.dequeue();
+        }
+        producer.join();
+        endTime = System.nanoTime();
+        System.out.println("SpscQueue: " + (long) (opCount / ((endTime - startTime) / 1_000_000_000.0)) + " ops/s");
+
+        SpscQueue<Integer> batchQueue = new SpscQueue<>(1024);
+        producer = new Thread(() -> {
+            Integer[] src = new Integer[batch];
+            Arrays.fill(src, element);
+            for (int i = 0; i < opCount; ) {
+                int n = batchQueue.offer(src, 0, Math.min(batch, opCount - i));
+                if (n == 0) {
+                    Thread.yield();
+                }
+                i += n;
+            }
+        });
+        Integer[] dst = new Integer[batch];
+        startTime = System.nanoTime();
+        producer.start();
+        for (int i = 0; i < opCount; ) {
+            int n = batchQueue.poll(dst, batch);
+            if (n == 0) {
+                Thread.yield();
+            }
+            i += n;
+        }
+        producer.join();
+        endTime = System.nanoTime();
+        System.out.println("SpscQueue, batch " + batch + ": " + (long) (opCount / ((endTime - startTime) / 1_000_000_000.0)) + " ops/s");
+
+        testSpscLatency(100_000);
+    }
+
+    /**
+     * 测量 SpscQueue 从入队到出队的延迟。
+     * 生产者每次等消费者取走上一个元素之后再入队下一个，这样测到的是单次传递的延迟，而不包括在队列中排队的时间。
+     * @param count 传递的次数。
+     */
+    private static void testSpscLatency(int count) throws InterruptedException {
+        SpscQueue<Integer> queue = new SpscQueue<>(1024);
+        Integer[] indexes = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        long[] sendTimes = new long[count];
+        long[] latencies = new long[count];
+        AtomicLong received = new AtomicLong();
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                for (int spins = 0; received.get() < i; spins++) {
+                    if (spins < 100) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                sendTimes[i] = System.nanoTime();
+                queue.enqueue(indexes[i]);
+            }
+        });
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            int index = queue.dequeue();
+            latencies[index] = System.nanoTime() - sendTimes[index];
+            received.lazySet(i + 1);
+        }
+        producer.join();
+
+        Arrays.sort(latencies);
+        System.out.println(String.format("SpscQueue latency: p50 = %dns, p99 = %dns, p99.9 = %dns, max = %dns",
+                latencies[count / 2], latencies[(int) (count * 0.99)], latencies[(int) (count * 0.999)], latencies[count - 1]));
+    }
+
+    private static void test6() throws InterruptedException {
+        // 多个生产者和多个消费者共享一个队列，对比加锁的 LoopQueue 和不同等待策略的 MpmcQueue。
+        int opCount = 200_000;
+        int capacity = 1024;
+
+        for (int threads = 1; threads <= 4; threads *= 2) {
+            String prefix = threads + " producers, " + threads + " consumers, ";
+            long total = (long) threads * opCount;
+
+            double time = testConcurrentQueue(new SynchronizedQueue<>(capacity), threads, opCount, 1, false);
+            System.out.println(prefix + "synchronized LoopQueue: " + (long) (total / time) + " ops/s");
+
+            // busySpin 一直占着 CPU，线程数超过核数时，等待的线程会拖慢持有数据的线程。
+            WaitStrategy[] strategies = {WaitStrategy.busySpin(), WaitStrategy.yielding(), WaitStrategy.parking(), WaitStrategy.blocking()};
+            for (WaitStrategy strategy : strategies) {
+                time = testConcurrentQueue(new MpmcQueue<>(capacity, strategy), threads, opCount, 1, false);
+                System.out.println(prefix + "MpmcQueue " + strategy + ": " + (long) (total / time) + " ops/s");
+            }
+
+            time = testConcurrentQueue(new MpmcQueue<>(capacity, WaitStrategy.yielding()), threads, opCount, 64, false);
+            System.out.println(prefix + "MpmcQueue batch 64: " + (long) (total / time) + " ops/s");
+        }
+
+        // 线程数远多于 CPU 核数时，blocking 策略在平台线程和虚拟线程上的对比。
+        // 虚拟线程在 Condition 上等待时会让出承载它的平台线程，所以创建上百个也没有什么代价。
+        int threads = 100;
+        int perThread = 10_000;
+        long total = (long) threads * perThread;
+        String prefix = threads + " producers, " + threads + " consumers, MpmcQueue blocking";
+        double time = testConcurrentQueue(new MpmcQueue<>(capacity, WaitStrategy.blocking()), threads, perThread, 1, false);
+        System.out.println(prefix + ", platform threads: " + (long) (total / time) + " ops/s");
+        if (virtualThreadsSupported()) {
+            time = testConcurrentQueue(new MpmcQueue<>(capacity, WaitStrategy.blocking()), threads, perThread, 1, true);
+            System.out.println(prefix + ", virtual threads: " + (long) (total / time) + " ops/s");
+        } else {
+            System.out.println(prefix + ", virtual threads: not supported by Java " + Runtime.version().feature());
+        }
+    }
+
+    /**
+     * threads 个生产者各入队 opCount 个元素，threads 个消费者各出队 opCount 个元素。
+     * batch 大于 1 时（只对 MpmcQueue 有效）使用批量的 offer 和 poll。
+     * virtual 为 true 时使用虚拟线程。
+     * @return 所有线程完成所需要的时间，单位：秒
+     */
+    private static double testConcurrentQueue(Queue<Integer> queue, int threads, int opCount, int batch, boolean virtual) throws InterruptedException {
+        Integer element = 1;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < 2 * threads; t++) {
+            boolean producer = t < threads;
+            Runnable task = () -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (batch > 1) {
+                    MpmcQueue<Integer> mpmcQueue = (MpmcQueue<Integer>) queue;
+                    Integer[] buffer = new Integer[batch];
+                    Arrays.fill(buffer, element);
+                    for (int i = 0; i < opCount; ) {
+                        int n = producer
+                                ? mpmcQueue.offer(buffer, 0, Math.min(batch, opCount - i))
+                                : mpmcQueue.poll(buffer, Math.min(batch, opCount - i));
+                        if (n == 0) {
+                            Thread.yield();
+                        }
+                        i += n;
+                    }
+                } else if (producer) {
+                    for (int i = 0; i < opCount; i++) {
+                        queue.enqueue(element);
+                    }
+                } else {
+                    for (int i = 0; i < opCount; i++) {
+                        queue.dequeue();
+                    }
+                }
+            };
+            workers[t] = virtual ? newVirtualThread(task) : new Thread(task);
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    /**
+     * 虚拟线程从 Java 21 开始正式提供。这里通过反射创建，这样在更早的版本上也能编译和运行其他测试。
+     */
+    private static boolean virtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 相当于 Thread.ofVirtual().unstarted(task)。
+     */
+    private static Thread newVirtualThread(Runnable task) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (Thread) Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not supported.", e);
+        }
+    }
+
+    /**
+     * 用一把全局的锁包装一个有界的 LoopQueue，队列满时入队、队列空时出队在锁上等待。
+     */
+    private static class SynchronizedQueue<E> implements Queue<E> {
+        private final LoopQueue<E> queue;
+        private final int capacity;
+
+        public SynchronizedQueue(int capacity) {
+            this.queue = new LoopQueue<>(capacity);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized void enqueue(E e) {
+            boolean interrupted = false;
+            while (queue.getSize() == capacity) {
+                interrupted |= waitUninterruptibly();
+            }
+            restoreInterrupt(interrupted);
+            queue.enqueue(e);
+            notifyAll();
+        }
+
+        @Override
+        public synchronized E dequeue() {
+            boolean interrupted = false;
+            while (queue.isEmpty()) {
+                interrupted |= waitUninterruptibly();
+            }
+            restoreInterrupt(interrupted);
+            E e = queue.dequeue();
+            notifyAll();
+            return e;
+        }
+
+        @Override
+        public synchronized E getFront() {
+            return queue.getFront();
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return queue.getSize();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        /**
+         * 在锁上等待，被中断时继续等待，只记录发生过中断。
+         * 如果在循环中马上恢复中断状态，之后的每次 wait 都会立即抛出异常，变成持有锁的忙等。
+         * @return 等待期间是否被中断过。
+         */
+        private boolean waitUninterruptibly() {
+            try {
+                wait();
+                return false;
+            } catch (InterruptedException e) {
+                return true;
+            }
+        }
+
+        /**
+         * 等待结束之后，恢复等待期间发生过的中断，和 Condition.awaitUninterruptibly 一样。
+         */
+        private static void restoreInterrupt(boolean interrupted) {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 当前线程到目前为止分配的字节数。
+     * 和 app.stack.Main 中的同名方法相同，每个包的 Main 都可以单独运行，所以各自保留一份，修改时两边保持一致。
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,339 @@
+package app.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BooleanSupplier;
+
+/**
+ * MpmcQueue
+ * 多生产者多消费者（multi producer multi consumer）的无锁有界队列（Vyukov 算法）。
+ *
+ * 多个线程入队、多个线程出队时，SpscQueue 不再适用，而给 LoopQueue 加一把锁，所有的入队和出队都要排队。
+ *
+ * MpmcQueue 给数组的每个位置配一个序号 sequence，初始时位置 i 的序号是 i：
+ * 1. 入队的线程读取 tail，位置 tail 的序号等于 tail，说明这个位置空着，CAS 把 tail 加一就占有了这个位置，
+ *    写入元素之后把序号改为 tail + 1，表示可以出队了。序号小于 tail，说明消费者还没有取走上一圈的元素，队列已满。
+ * 2. 出队的线程读取 head，位置 head 的序号等于 head + 1，说明元素已经写好，CAS 把 head 加一就占有了这个位置，
+ *    取走元素之后把序号改为 head + capacity，也就是下一圈入队这个位置时的 tail。序号小于 head + 1，说明队列为空。
+ * 生产者之间只在 tail 上竞争，消费者之间只在 head 上竞争；写入和取走元素是在 CAS 之后各自进行的，不会阻挡其他线程占有别的位置。
+ *
+ * 批量的 offer 和 poll 先检查从 tail（head）开始连续多少个位置已经就绪，再用一次 CAS 占有这些位置，n 个元素只竞争一次。
+ *
+ * 队列满或者空的时候，offer、poll 立即返回；enqueue、dequeue 按照构造时指定的 WaitStrategy 等待。
+ *
+ * 时间复杂度：
+ * boolean offer(E)    O(1)
+ * E poll()            O(1)
+ * int getSize()       O(1)
+ * boolean isEmpty()   O(1)
+ */
+public class MpmcQueue<E> extends MpmcQueueConsumerPad implements Queue<E> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcQueueConsumerField.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcQueueProducerField.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] data;
+    private final long[] sequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier canOffer = this::canOffer;
+    private final BooleanSupplier canPoll = this::canPoll;
+
+    /**
+     * 构造函数。
+     * @param capacity 容量，会向上取到 2 的幂，至少为 2。
+     * @param waitStrategy enqueue、dequeue 的等待策略。blocking 策略有自己的状态，不要在多个队列之间共享。
+     */
+    @SuppressWarnings("unchecked")
+    public MpmcQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30].");
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategy can not be null.");
+        }
+
+        // 容量为 1 时，一个元素入队之后的序号 tail + 1 和下一次入队时期望的序号相同，无法区分满和空。
+        int length = Math.max(2, Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1);
+        data = (E[]) new Object[length];
+        sequences = new long[length];
+        for (int i = 0; i < length; i++) {
+            sequences[i] = i;
+        }
+        mask = length - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public MpmcQueue(int capacity) {
+        this(capacity, WaitStrategy.yielding());
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * 队列中元素的个数，包括已经占有位置、还没有写完的元素。其他线程同时在修改时，只是某一时刻的近似值。
+     */
+    @Override
+    public int getSize() {
+        long h = (long) HEAD.getVolatile(this);
+        long t = (long) TAIL.getVolatile(this);
+        return (int) Math.max(0, Math.min(t - h, data.length));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    /**
+     * 入队。
+     * @param e 不能为 null，null 被 poll 用来表示队列为空。
+     * @return 队列已满时返回 false。
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("Element can not be null.");
+        }
+
+        long t = (long) TAIL.getVolatile(this);
+        while (true) {
+            int index = (int) t & mask;
+            long diff = sequence(index) - t;
+            if (diff == 0) {
+                if (TAIL.compareAndSet(this, t, t + 1)) {
+                    data[index] = e;
+                    SEQUENCE.setRelease(sequences, index, t + 1);
+                    waitStrategy.signalAll();
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // CAS 失败或者这个位置已经被其他生产者占有，读取新的 tail 重试。
+            t = (long) TAIL.getVolatile(this);
+        }
+    }
+
+    /**
+     * 批量入队，把 src 中从 off 开始的最多 len 个元素依次入队，只 CAS 一次 tail。
+     * @param src
+     * @param off
+     * @param len
+     * @return 实际入队的元素个数，队列剩余空间不足时小于 len。
+     */
+    public int offer(E[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length) {
+            throw new IllegalArgumentException("Offer failed. Range is illegal.");
+        }
+        for (int i = off; i < off + len; i++) {
+            if (src[i] == null) {
+                throw new IllegalArgumentException("Element can not be null.");
+            }
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        long t = (long) TAIL.getVolatile(this);
+        while (true) {
+            // 从 t 开始连续就绪的位置的个数。
+            int n = 0;
+            long diff = 0;
+            while (n < len && (diff = sequence((int) (t + n) & mask) - (t + n)) == 0) {
+                n++;
+            }
+
+            if (n > 0) {
+                if (TAIL.compareAndSet(this, t, t + n)) {
+                    for (int i = 0; i < n; i++) {
+                        int index = (int) (t + i) & mask;
+                        data[index] = src[off + i];
+                        SEQUENCE.setRelease(sequences, index, t + i + 1);
+                    }
+                    waitStrategy.signalAll();
+                    return n;
+                }
+            } else if (diff < 0) {
+                return 0;
+            }
+            t = (long) TAIL.getVolatile(this);
+        }
+    }
+
+    /**
+     * 出队。
+     * @return 队首的元素，队列为空时返回 null。
+     */
+    public E poll() {
+        long h = (long) HEAD.getVolatile(this);
+        while (true) {
+            int index = (int) h & mask;
+            long diff = sequence(index) - (h + 1);
+            if (diff == 0) {
+                if (HEAD.compareAndSet(this, h, h + 1)) {
+                    E e = data[index];
+                    data[index] = null;
+                    SEQUENCE.setRelease(sequences, index, h + data.length);
+                    waitStrategy.signalAll();
+                    return e;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+            h = (long) HEAD.getVolatile(this);
+        }
+    }
+
+    /**
+     * 批量出队，最多取出 max 个元素，按出队的顺序存放到 dst 的开头，只 CAS 一次 head。
+     * @param dst
+     * @param max
+     * @return 实际出队的元素个数。
+     */
+    public int poll(E[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Poll failed. Max is illegal.");
+        }
+        max = Math.min(max, dst.length);
+        if (max == 0) {
+            return 0;
+        }
+
+        long h = (long) HEAD.getVolatile(this);
+        while (true) {
+            int n = 0;
+            long diff = 0;
+            while (n < max && (diff = sequence((int) (h + n) & mask) - (h + n + 1)) == 0) {
+                n++;
+            }
+
+            if (n > 0) {
+                if (HEAD.compareAndSet(this, h, h + n)) {
+                    for (int i = 0; i < n; i++) {
+                        int index = (int) (h + i) & mask;
+                        dst[i] = data[index];
+                        data[index] = null;
+                        SEQUENCE.setRelease(sequences, index, h + i + data.length);
+                    }
+                    waitStrategy.signalAll();
+                    return n;
+                }
+            } else if (diff < 0) {
+                return 0;
+            }
+            h = (long) HEAD.getVolatile(this);
+        }
+    }
+
+    /**
+     * 入队，队列满时按照等待策略等待。
+     */
+    @Override
+    public void enqueue(E e) {
+        while (!offer(e)) {
+            waitStrategy.await(canOffer);
+        }
+    }
+
+    /**
+     * 出队，队列空时按照等待策略等待。
+     */
+    @Override
+    public E dequeue() {
+        E e;
+        while ((e = poll()) == null) {
+            waitStrategy.await(canPoll);
+        }
+        return e;
+    }
+
+    /**
+     * 查看队首元素。其他消费者可能同时取走它，所以只是某一时刻的队首。
+     */
+    @Override
+    public E getFront() {
+        while (true) {
+            long h = (long) HEAD.getVolatile(this);
+            int index = (int) h & mask;
+            long diff = sequence(index) - (h + 1);
+            if (diff < 0) {
+                throw new IllegalArgumentException("Queue is empty.");
+            }
+            if (diff == 0) {
+                E e = data[index];
+                // poll 先 CAS head、把位置置为 null，之后才修改序号，所以只检查序号看不到正在进行的 poll。
+                // head 没有变化并且 e 不为 null，说明读取期间这个位置没有被取走，e 就是 h 位置的元素。
+                if (e != null && (long) HEAD.getVolatile(this) == h) {
+                    return e;
+                }
+            }
+        }
+    }
+
+    private long sequence(int index) {
+        return (long) SEQUENCE.getAcquire(sequences, index);
+    }
+
+    /**
+     * tail 位置已经空出来，或者已经被其他生产者占有（tail 即将前进）。
+     */
+    private boolean canOffer() {
+        long t = (long) TAIL.getVolatile(this);
+        return sequence((int) t & mask) - t >= 0;
+    }
+
+    /**
+     * head 位置的元素已经写好，或者已经被其他消费者占有（head 即将前进）。
+     */
+    private boolean canPoll() {
+        long h = (long) HEAD.getVolatile(this);
+        return sequence((int) h & mask) - (h + 1) >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MpmcQueue: size = %d, capacity = %d, wait strategy = %s", getSize(), data.length, waitStrategy);
+    }
+}
+
+/**
+ * 字段的布局：和 SpscQueue 一样，利用继承把 tail、head 和只读的字段用填充隔开，避免生产者和消费者之间的伪共享。
+ */
+abstract class MpmcQueuePad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class MpmcQueueProducerField extends MpmcQueuePad {
+    // 下一个入队的位置，由生产者 CAS 修改。
+    long tail;
+}
+
+abstract class MpmcQueueProducerPad extends MpmcQueueProducerField {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class MpmcQueueConsumerField extends MpmcQueueProducerPad {
+    // 下一个出队的位置，由消费者 CAS 修改。
+    long head;
+}
+
+abstract class MpmcQueueConsumerPad extends MpmcQueueConsumerField {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
@@ -0,0 +1,264 @@
+package app.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * SpscQueue
+ * 单生产者单消费者（single producer single consumer）的无锁有界队列。
+ *
+ * 两个线程之间传递数据时，LoopQueue 不是线程安全的，只能加锁，每次入队出队都要获取锁。
+ *
+ * 如果只有一个线程入队、一个线程出队，就不需要锁：
+ * 1. tail 只由生产者修改，head 只由消费者修改，两个线程从来不会修改同一个变量。
+ * 2. 生产者先把元素写入数组，再以 release 的方式写 tail；消费者以 acquire 的方式读到新的 tail 之后，一定能看到写入的元素。
+ *    反过来，消费者取走元素之后以 release 的方式写 head，生产者以 acquire 的方式读 head，就知道哪些位置可以重新使用。
+ * 3. 读取对方的下标需要和另一个 CPU 核同步缓存，代价比较高。所以各自缓存一份对方的下标：
+ *    生产者只有在缓存的 head 显示队列已满时才重新读取 head，消费者只有在缓存的 tail 显示队列为空时才重新读取 tail。
+ * 4. head 和 tail 分别被两个核频繁写入，如果它们在同一个缓存行中，一个核的写入会让另一个核的缓存行失效（伪共享）。
+ *    所以在生产者的字段和消费者的字段前后都填充了 64 字节以上的无用字段，让它们位于不同的缓存行。
+ *
+ * 容量向上取到 2 的幂，下标一直递增，使用与运算得到在数组中的位置。
+ *
+ * offer、enqueue 只能由生产者线程调用；poll、dequeue、getFront 只能由消费者线程调用。
+ * enqueue 在队列满时、dequeue 在队列空时会自旋等待，而不是抛出异常。
+ */
+public class SpscQueue<E> extends SpscQueueConsumerPad implements Queue<E> {
+
+    // 自旋多少次之后让出 CPU。
+    private static final int SPINS = 100;
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscQueueConsumerFields.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscQueueProducerFields.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 两个线程都只读取、不修改这两个字段。
+    private final E[] data;
+    private final int mask;
+
+    /**
+     * 构造函数。
+     * @param capacity 容量，会向上取到 2 的幂。
+     */
+    @SuppressWarnings("unchecked")
+    public SpscQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30].");
+        }
+
+        int length = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+        data = (E[]) new Object[length];
+        mask = length - 1;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    /**
+     * 队列中元素的个数。其他线程同时在修改时，只是某一时刻的近似值。
+     */
+    @Override
+    public int getSize() {
+        long h = (long) HEAD.getAcquire(this);
+        long t = (long) TAIL.getAcquire(this);
+        return (int) Math.max(0, Math.min(t - h, data.length));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    /**
+     * 入队，只能由生产者调用。
+     * @param e 不能为 null，null 被 poll 用来表示队列为空。
+     * @return 队列已满时返回 false。
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("Element can not be null.");
+        }
+
+        long t = tail;
+        if (t - cachedHead >= data.length) {
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (t - cachedHead >= data.length) {
+                return false;
+            }
+        }
+
+        data[(int) t & mask] = e;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    /**
+     * 批量入队，把 src 中从 off 开始的最多 len 个元素依次入队，只发布一次 tail。只能由生产者调用。
+     * @param src
+     * @param off
+     * @param len
+     * @return 实际入队的元素个数，队列剩余空间不足时小于 len。
+     */
+    public int offer(E[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length) {
+            throw new IllegalArgumentException("Offer failed. Range is illegal.");
+        }
+
+        long t = tail;
+        if (data.length - (t - cachedHead) < len) {
+            cachedHead = (long) HEAD.getAcquire(this);
+        }
+        int n = (int) Math.min(len, data.length - (t - cachedHead));
+
+        for (int i = 0; i < n; i++) {
+            E e = src[off + i];
+            if (e == null) {
+                // 已经写入的元素照常发布。
+                TAIL.setRelease(this, t + i);
+                throw new IllegalArgumentException("Element can not be null.");
+            }
+            data[(int) (t + i) & mask] = e;
+        }
+        TAIL.setRelease(this, t + n);
+        return n;
+    }
+
+    /**
+     * 出队，只能由消费者调用。
+     * @return 队首的元素，队列为空时返回 null。
+     */
+    public E poll() {
+        long h = head;
+        if (h >= cachedTail) {
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+
+        int index = (int) h & mask;
+        E e = data[index];
+        data[index] = null;
+        HEAD.setRelease(this, h + 1);
+        return e;
+    }
+
+    /**
+     * 批量出队，最多取出 max 个元素，按出队的顺序存放到 dst 的开头，只发布一次 head。只能由消费者调用。
+     * @param dst
+     * @param max
+     * @return 实际出队的元素个数。
+     */
+    public int poll(E[] dst, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("Poll failed. Max is illegal.");
+        }
+
+        long h = head;
+        max = Math.min(max, dst.length);
+        if (cachedTail - h < max) {
+            cachedTail = (long) TAIL.getAcquire(this);
+        }
+        int n = (int) Math.min(max, cachedTail - h);
+
+        for (int i = 0; i < n; i++) {
+            int index = (int) (h + i) & mask;
+            dst[i] = data[index];
+            data[index] = null;
+        }
+        HEAD.setRelease(this, h + n);
+        return n;
+    }
+
+    /**
+     * 入队，队列满时自旋等待，等待一段时间之后开始让出 CPU。只能由生产者调用。
+     */
+    @Override
+    public void enqueue(E e) {
+        int spins = 0;
+        while (!offer(e)) {
+            spins = backOff(spins);
+        }
+    }
+
+    /**
+     * 出队，队列空时自旋等待，等待一段时间之后开始让出 CPU。只能由消费者调用。
+     */
+    @Override
+    public E dequeue() {
+        int spins = 0;
+        E e;
+        while ((e = poll()) == null) {
+            spins = backOff(spins);
+        }
+        return e;
+    }
+
+    /**
+     * 查看队首元素，只能由消费者调用。
+     */
+    @Override
+    public E getFront() {
+        long h = head;
+        if (h >= cachedTail) {
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h >= cachedTail) {
+                throw new IllegalArgumentException("Queue is empty.");
+            }
+        }
+        return data[(int) h & mask];
+    }
+
+    private static int backOff(int spins) {
+        if (spins < SPINS) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        Thread.yield();
+        return spins;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SpscQueue: size = %d, capacity = %d", getSize(), data.length);
+    }
+}
+
+/**
+ * 字段的布局：父类的字段总是排在子类的字段之前，利用继承把生产者的字段、消费者的字段和只读的字段用填充隔开。
+ */
+abstract class SpscQueuePad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscQueueProducerFields extends SpscQueuePad {
+    // 下一个入队的位置，只由生产者写入。
+    long tail;
+    // 生产者缓存的 head。
+    long cachedHead;
+}
+
+abstract class SpscQueueProducerPad extends SpscQueueProducerFields {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscQueueConsumerFields extends SpscQueueProducerPad {
+    // 下一个出队的位置，只由消费者写入。
+    long head;
+    // 消费者缓存的 tail。
+    long cachedTail;
+}
+
+abstract class SpscQueueConsumerPad extends SpscQueueConsumerFields {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
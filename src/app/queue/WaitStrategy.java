@@ -0,0 +1,175 @@
+package app.queue;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * WaitStrategy
+ * 并发队列满了（生产者）或者空了（消费者）时的等待策略。
+ *
+ * 等待的方式决定了延迟和 CPU 占用之间的取舍：
+ * 1. busySpin：一直自旋，延迟最低，但是一直占着一个 CPU 核，线程数不能超过核数。
+ * 2. yielding：自旋一小会儿之后让出 CPU，延迟较低，空闲时仍然占用不少 CPU。
+ * 3. parking：自旋、让出 CPU 之后，每次休眠一小段时间再检查，空闲时几乎不占用 CPU，唤醒的延迟是休眠的时间。
+ * 4. blocking：在 Condition 上等待，由另一端入队或出队之后唤醒，适合等待时间比较长、或者线程数远多于核数的场景。
+ *    使用 ReentrantLock 而不是 synchronized，虚拟线程在 Condition 上等待时会让出承载它的平台线程。
+ *
+ * 队列在等待时调用 await，每次入队、出队之后调用 signalAll。只有 blocking 需要真正的唤醒，其他策略的 signalAll 什么都不做。
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待，直到 ready 返回 true。
+     * 返回之后条件可能又被其他线程改变了，调用者需要重新尝试。
+     * @param ready 等待的条件。
+     */
+    void await(BooleanSupplier ready);
+
+    /**
+     * 唤醒在 await 中等待的线程，在条件可能发生变化之后调用。
+     */
+    default void signalAll() {
+    }
+
+    /**
+     * 一直自旋。
+     * @return
+     */
+    static WaitStrategy busySpin() {
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier ready) {
+                while (!ready.getAsBoolean()) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "busySpin";
+            }
+        };
+    }
+
+    /**
+     * 自旋 100 次之后，每次检查之前让出 CPU。
+     * @return
+     */
+    static WaitStrategy yielding() {
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier ready) {
+                for (int spins = 0; !ready.getAsBoolean(); spins++) {
+                    if (spins < 100) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "yielding";
+            }
+        };
+    }
+
+    /**
+     * 自旋 100 次，再让出 CPU 100 次，之后每次休眠 parkNanos 纳秒。
+     * @param parkNanos 每次休眠的时间。
+     * @return
+     */
+    static WaitStrategy parking(long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException("Park nanos must be positive.");
+        }
+
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier ready) {
+                for (int spins = 0; !ready.getAsBoolean(); spins++) {
+                    if (spins < 100) {
+                        Thread.onSpinWait();
+                    } else if (spins < 200) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(parkNanos);
+                    }
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "parking(" + parkNanos + ")";
+            }
+        };
+    }
+
+    /**
+     * 每次休眠 50 微秒。
+     * @return
+     */
+    static WaitStrategy parking() {
+        return parking(50_000);
+    }
+
+    /**
+     * 在 Condition 上等待，由 signalAll 唤醒。
+     * 这个策略有自己的状态，每个队列应该使用一个新的实例。
+     *
+     * 为了不让每次入队、出队都去获取锁，等待的线程先增加 waiters 再检查条件，唤醒的一方先改变条件再检查 waiters，
+     * 两边之间都有一个完整的内存屏障，所以不会出现等待的一方没有看到条件变化、唤醒的一方也没有看到有线程在等待的情况。
+     * 检查条件和 await 都在锁中进行，唤醒也在锁中进行，所以不会丢失唤醒。
+     * @return
+     */
+    static WaitStrategy blocking() {
+        return new WaitStrategy() {
+            private final ReentrantLock lock = new ReentrantLock();
+            private final Condition changed = lock.newCondition();
+            private final AtomicInteger waiters = new AtomicInteger();
+
+            @Override
+            public void await(BooleanSupplier ready) {
+                if (ready.getAsBoolean()) {
+                    return;
+                }
+
+                waiters.incrementAndGet();
+                lock.lock();
+                try {
+                    while (!ready.getAsBoolean()) {
+                        changed.awaitUninterruptibly();
+                    }
+                } finally {
+                    lock.unlock();
+                    waiters.decrementAndGet();
+                }
+            }
+
+            @Override
+            public void signalAll() {
+                VarHandle.fullFence();
+                if (waiters.get() == 0) {
+                    return;
+                }
+
+                lock.lock();
+                try {
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "blocking";
+            }
+        };
+    }
+}
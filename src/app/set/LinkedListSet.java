@@ -1,18 +1,30 @@
 package app.set;
 
 import app.linkedlist.LinkedList;
+import app.linkedlist.List;
 
 /**
  * LinkedListSet
  */
 public class LinkedListSet<E> implements Set<E> {
 
-    private LinkedList<E> linkedList;
+    private List<E> linkedList;
 
     public LinkedListSet() {
         linkedList = new LinkedList<>();
     }
 
+    /**
+     * 使用指定的链表作为底层的数据结构，比如传入一个 DoublyLinkedList。
+     * @param linkedList 一个空的链表。
+     */
+    public LinkedListSet(List<E> linkedList) {
+        if (linkedList == null || !linkedList.isEmpty()) {
+            throw new IllegalArgumentException("List must be empty.");
+        }
+        this.linkedList = linkedList;
+    }
+
     @Override
     public int getSize() {
         return linkedList.getSize();
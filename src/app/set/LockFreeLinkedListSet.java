@@ -0,0 +1,179 @@
+package app.set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/**
+ * LockFreeLinkedListSet
+ * 无锁的有序链表集合（Harris-Michael 算法）。
+ *
+ * LinkedListSet 不是线程安全的，多个线程共享时只能在外面加一把全局的锁，所有操作都要排队执行。
+ *
+ * LockFreeLinkedListSet 中的元素在链表中从小到大排列，每个节点的 next 是一个「可标记的引用」（AtomicMarkableReference），
+ * 引用和一个标记位可以同时被 CAS 修改：
+ * 1. add 找到插入位置的前一个节点 pred 和后一个节点 curr，CAS 把 pred.next 从 curr 改为新节点，CAS 失败说明有其他线程修改了这里，重新查找即可。
+ * 2. remove 分成两步：先 CAS 给被删除节点的 next 打上标记，这一步成功就表示删除成功（逻辑删除）；
+ *    再 CAS 把 pred.next 改为被删除节点的下一个节点（物理删除），这一步失败也没关系，之后其他线程查找时遇到带标记的节点，会顺便把它摘掉。
+ *    因为被删除节点的 next 已经打上了标记，其他线程不可能再在它后面插入节点，所以不会丢失新插入的节点。
+ * 3. contains 只是顺着链表读取，不修改任何节点，也不需要重试，步数不超过链表的长度，是无等待（wait-free）的。
+ *
+ * 任何时刻总有一个线程的 CAS 能够成功，所以整体上总是在前进，不会因为某个线程被挂起而所有线程都等待。
+ *
+ * 时间复杂度：
+ * add        O(n)
+ * remove     O(n)
+ * contains   O(n)
+ */
+public class LockFreeLinkedListSet<E extends Comparable<E>> implements Set<E> {
+
+    private static class Node<E> {
+        public final E e;
+        public final AtomicMarkableReference<Node<E>> next;
+
+        public Node(E e, Node<E> next) {
+            this.e = e;
+            this.next = new AtomicMarkableReference<>(next, false);
+        }
+    }
+
+    /**
+     * 查找的结果：curr 是第一个大于等于 e 的节点（可能为 null），pred 是它前面的节点。
+     */
+    private static class Window<E> {
+        public final Node<E> pred;
+        public final Node<E> curr;
+
+        public Window(Node<E> pred, Node<E> curr) {
+            this.pred = pred;
+            this.curr = curr;
+        }
+    }
+
+    // 虚拟头节点，不会被删除。
+    private final Node<E> dummyHead;
+    private final AtomicInteger size;
+
+    public LockFreeLinkedListSet() {
+        dummyHead = new Node<>(null, null);
+        size = new AtomicInteger();
+    }
+
+    /**
+     * 元素的个数。其他线程同时在修改时，只是某一时刻的近似值。
+     * @return
+     */
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        Node<E> curr = dummyHead.next.getReference();
+        while (curr != null && curr.e.compareTo(e) < 0) {
+            curr = curr.next.getReference();
+        }
+        return curr != null && curr.e.compareTo(e) == 0 && !curr.next.isMarked();
+    }
+
+    @Override
+    public void add(E e) {
+        while (true) {
+            Window<E> window = find(e);
+            Node<E> pred = window.pred;
+            Node<E> curr = window.curr;
+
+            if (curr != null && curr.e.compareTo(e) == 0) {
+                return;
+            }
+
+            Node<E> node = new Node<>(e, curr);
+            if (pred.next.compareAndSet(curr, node, false, false)) {
+                size.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void remove(E e) {
+        while (true) {
+            Window<E> window = find(e);
+            Node<E> pred = window.pred;
+            Node<E> curr = window.curr;
+
+            if (curr == null || curr.e.compareTo(e) != 0) {
+                return;
+            }
+
+            // 逻辑删除：给 curr.next 打上标记，失败说明 curr 后面插入了节点或者 curr 已经被其他线程删除，重新查找。
+            Node<E> succ = curr.next.getReference();
+            if (!curr.next.compareAndSet(succ, succ, false, true)) {
+                continue;
+            }
+
+            // 物理删除：失败的话留给之后的 find 摘掉。
+            pred.next.compareAndSet(curr, succ, false, false);
+            size.decrementAndGet();
+            return;
+        }
+    }
+
+    /**
+     * 查找第一个大于等于 e 的节点，沿途遇到已经被逻辑删除的节点，就把它从链表中摘掉。
+     * 摘除失败说明 pred 被修改了，从头重新查找。
+     */
+    private Window<E> find(E e) {
+        boolean[] marked = new boolean[1];
+
+        retry:
+        while (true) {
+            Node<E> pred = dummyHead;
+            Node<E> curr = pred.next.getReference();
+            while (true) {
+                if (curr == null) {
+                    return new Window<>(pred, null);
+                }
+
+                Node<E> succ = curr.next.get(marked);
+                while (marked[0]) {
+                    if (!pred.next.compareAndSet(curr, succ, false, false)) {
+                        continue retry;
+                    }
+                    curr = succ;
+                    if (curr == null) {
+                        return new Window<>(pred, null);
+                    }
+                    succ = curr.next.get(marked);
+                }
+
+                if (curr.e.compareTo(e) >= 0) {
+                    return new Window<>(pred, curr);
+                }
+                pred = curr;
+                curr = succ;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+
+        Node<E> cur = dummyHead.next.getReference();
+        while (cur != null) {
+            if (!cur.next.isMarked()) {
+                res.append(cur.e + "->");
+            }
+            cur = cur.next.getReference();
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
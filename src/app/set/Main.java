@@ -1,6 +1,8 @@
 package app.set;
 
 // import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Main
@@ -33,7 +35,12 @@ package app.set;
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        test1();
+        test2();
+    }
+
+    private static void test1() {
         // ArrayList<String> words = new ArrayList<>();
 
         // words.add("a");
@@ -51,4 +58,97 @@ public class Main {
         System.out.println(set.getSize());
         System.out.println(set.isEmpty());
     }
-}
\ No newline at end of file
+
+    private static void test2() throws InterruptedException {
+        // 多个线程同时读写一个集合，对比加全局锁的 LinkedListSet 和无锁的 LockFreeLinkedListSet 的吞吐量。
+        int opCount = 200_000;
+        int keyRange = 512;
+
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            double time1 = testConcurrentSet(new SynchronizedSet<>(new LinkedListSet<>()), threads, opCount, keyRange);
+            double time2 = testConcurrentSet(new LockFreeLinkedListSet<>(), threads, opCount, keyRange);
+            System.out.println(threads + " threads, synchronized LinkedListSet: " + (long) (threads * opCount / time1) + " ops/s"
+                    + ", LockFreeLinkedListSet: " + (long) (threads * opCount / time2) + " ops/s");
+        }
+    }
+
+    /**
+     * 先让 set 中有一半的键，再让 threads 个线程同时各运行 opCount 个操作，90% 是 contains，add 和 remove 各 5%。
+     * @return 所有线程完成所需要的时间，单位：秒
+     */
+    private static double testConcurrentSet(Set<Integer> set, int threads, int opCount, int keyRange) throws InterruptedException {
+        for (int i = 0; i < keyRange; i += 2) {
+            set.add(i);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < opCount; i++) {
+                    int key = random.nextInt(keyRange);
+                    int op = random.nextInt(20);
+                    if (op == 0) {
+                        set.add(key);
+                    } else if (op == 1) {
+                        set.remove(key);
+                    } else {
+                        set.contains(key);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    /**
+     * 用一把全局的锁包装一个集合，每个操作都在锁中执行。
+     */
+    private static class SynchronizedSet<E> implements Set<E> {
+        private final Set<E> set;
+
+        public SynchronizedSet(Set<E> set) {
+            this.set = set;
+        }
+
+        @Override
+        public synchronized void add(E e) {
+            set.add(e);
+        }
+
+        @Override
+        public synchronized void remove(E e) {
+            set.remove(e);
+        }
+
+        @Override
+        public synchronized boolean contains(E e) {
+            return set.contains(e);
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return set.getSize();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return set.isEmpty();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package app.stack;
 
 import app.array.Array;
+import app.array.DynamicArray;
+import app.array.GrowthPolicy;
 
 /**
  * ArrayStack
@@ -17,7 +19,7 @@ import app.array.Array;
  */
 public class ArrayStack<E> implements Stack<E> {
 
-    private Array<E> array;
+    private DynamicArray<E> array;
 
     public ArrayStack(int capacity) {
         array = new Array<>(capacity);
@@ -27,6 +29,18 @@ public class ArrayStack<E> implements Stack<E> {
         array = new Array<>();
     }
 
+    public ArrayStack(int capacity, GrowthPolicy growthPolicy) {
+        array = new Array<>(capacity, growthPolicy);
+    }
+
+    /**
+     * 指定底层使用的动态数组，比如使用 SegmentedArray 避免大容量时整体拷贝。
+     * @param array 底层的动态数组，已有的元素从栈底到栈顶排列。
+     */
+    public ArrayStack(DynamicArray<E> array) {
+        this.array = array;
+    }
+
     /**
      * 栈的元素个数。
      */
@@ -51,6 +65,13 @@ public class ArrayStack<E> implements Stack<E> {
         return array.getCapacity();
     }
 
+    /**
+     * 查看实现这个栈的动态数组改变容量的次数。
+     */
+    public int getResizeCount() {
+        return array.getResizeCount();
+    }
+
 
     /**
      * 入栈。
@@ -1,6 +1,7 @@
 package app.stack;
 
 import app.linkedlist.LinkedList;
+import app.linkedlist.List;
 
 /**
  * LinkedListStack
@@ -15,12 +16,23 @@ import app.linkedlist.LinkedList;
  * 
  */
 public class LinkedListStack<E> implements Stack<E> {
-    private LinkedList<E> list;
+    private List<E> list;
 
     public LinkedListStack() {
         list = new LinkedList<>();
     }
 
+    /**
+     * 使用指定的链表作为底层的数据结构，链表头就是栈顶，比如传入一个 DoublyLinkedList。
+     * @param list 一个空的链表。
+     */
+    public LinkedListStack(List<E> list) {
+        if (list == null || !list.isEmpty()) {
+            throw new IllegalArgumentException("List must be empty.");
+        }
+        this.list = list;
+    }
+
     @Override
     public int getSize() {
         return list.getSize();
@@ -0,0 +1,136 @@
+package app.stack;
+
+import java.util.Arrays;
+
+/**
+ * LongStack
+ * 存放 long 的栈。
+ *
+ * ArrayStack<Long> 每次入栈都要把 long 装箱成 Long，并且经过 Array.addLast 的索引检查和扩容检查。
+ * 在表达式求值、深度优先遍历这样频繁入栈出栈的循环中，这些开销都很明显。
+ *
+ * LongStack 底层直接使用 long[]，操作和 Stack 接口一致，但是参数和返回值都是 long，所以没有实现 Stack<Long> 接口，以免装箱。
+ * 出栈时不缩容，所以栈的大小来回变化时，入栈和出栈都不会分配任何内存。
+ *
+ * 这个栈中的方法复杂度：
+ * void push(long)          O(1) 均摊
+ * long pop()               O(1)
+ * long peek()              O(1)
+ * int getSize()            O(1)
+ * boolean isEmpty()        O(1)
+ * void pushAll(long[])     O(k)
+ * void popInto(long[], n)  O(n)
+ */
+public class LongStack {
+
+    private long[] data;
+    private int size;
+
+    public LongStack(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity is illegal.");
+        }
+
+        data = new long[capacity];
+        size = 0;
+    }
+
+    public LongStack() {
+        this(10);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    /**
+     * 入栈。
+     */
+    public void push(long e) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = e;
+    }
+
+    /**
+     * 出栈。
+     */
+    public long pop() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Pop failed. Stack is empty.");
+        }
+        return data[--size];
+    }
+
+    /**
+     * 查看栈顶元素。
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Peek failed. Stack is empty.");
+        }
+        return data[size - 1];
+    }
+
+    /**
+     * 把 arr 中的元素依次入栈，arr 的最后一个元素成为栈顶，最多只扩容一次。
+     * @param arr
+     */
+    public void pushAll(long[] arr) {
+        if (size + arr.length > data.length) {
+            grow(size + arr.length);
+        }
+        System.arraycopy(arr, 0, data, size, arr.length);
+        size += arr.length;
+    }
+
+    /**
+     * 连续出栈 n 个元素，按照出栈的顺序存放到 dst 的开头，也就是 dst[0] 是原来的栈顶。
+     * @param dst
+     * @param n
+     */
+    public void popInto(long[] dst, int n) {
+        if (n < 0 || n > size || n > dst.length) {
+            throw new IllegalArgumentException("PopInto failed. Require 0 <= n <= size and n <= dst.length.");
+        }
+
+        for (int i = 0; i < n; i++) {
+            dst[i] = data[size - 1 - i];
+        }
+        size -= n;
+    }
+
+    /**
+     * 扩容为原来的两倍，如果还不够，直接扩容到 minCapacity。
+     */
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, Math.max(minCapacity, 2 * data.length));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append("Stack: ");
+        res.append('[');
+
+        for (int i = 0; i < size; i++) {
+            res.append(data[i]);
+            if (i != size - 1) {
+                res.append(", ");
+            }
+        }
+
+        res.append("] top");
+
+        return res.toString();
+    }
+}
@@ -1,6 +1,9 @@
 package app.stack;
 
+import app.linkedlist.ArenaLinkedList;
+import java.lang.management.ManagementFactory;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 // import app.stack.LinkedListStack;
 
 /**
@@ -8,9 +11,13 @@ import java.util.Random;
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         test1();
         test2();
+        test3();
+        test4();
+        test5();
+        test6();
     }
 
     private static void test1() {
@@ -57,4 +64,229 @@ public class Main {
 
         return (endTime - startTime) / 1_000_000_000.0;
     }
-}
\ No newline at end of file
+
+    private static void test3() {
+        // 栈的大小稳定之后反复入栈、出栈，对比每次操作分配的内存。
+        int depth = 1_000;
+        int opCount = 10_000_000;
+
+        LinkedListStack<Integer> linkedStack = new LinkedListStack<>();
+        System.out.println("LinkedListStack, bytes/op: " + testAllocation(linkedStack, depth, opCount));
+
+        LinkedListStack<Integer> arenaStack = new LinkedListStack<>(new ArenaLinkedList<>());
+        System.out.println("LinkedListStack(ArenaLinkedList), bytes/op: " + testAllocation(arenaStack, depth, opCount));
+    }
+
+    /**
+     * 先让 stack 中有 depth 个元素，再运行 opCount 次出栈、入栈，返回平均每次操作在当前线程中分配的字节数。
+     * 入栈的元素提前创建好，所以统计到的只有栈本身分配的内存。
+     * @param stack
+     * @param depth
+     * @param opCount
+     * @return
+     */
+    private static double testAllocation(Stack<Integer> stack, int depth, int opCount) {
+        Integer[] elements = new Integer[depth];
+        for (int i = 0; i < depth; i++) {
+            elements[i] = i;
+            stack.push(elements[i]);
+        }
+
+        long startBytes = allocatedBytes();
+
+        for (int i = 0; i < opCount; i++) {
+            stack.push(stack.pop());
+        }
+
+        long endBytes = allocatedBytes();
+
+        return (double) (endBytes - startBytes) / opCount;
+    }
+
+    private static void test4() {
+        // 对比 ArrayStack<Integer> 和 IntStack 反复入栈、出栈的时间和分配的内存。
+        int depth = 1_000;
+        int opCount = 10_000_000;
+
+        ArrayStack<Integer> arrayStack = new ArrayStack<>();
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        long sum1 = 0;
+        for (int i = 0; i < opCount; i++) {
+            arrayStack.push(i);
+            if (arrayStack.getSize() == depth) {
+                while (!arrayStack.isEmpty()) {
+                    sum1 += arrayStack.pop();
+                }
+            }
+        }
+        long endTime = System.nanoTime();
+        long endBytes = allocatedBytes();
+        System.out.println("ArrayStack<Integer>, time: " + (endTime - startTime) / 1_000_000_000.0 + "s, bytes/op: " + (double) (endBytes - startBytes) / opCount);
+
+        IntStack intStack = new IntStack();
+        startBytes = allocatedBytes();
+        startTime = System.nanoTime();
+        long sum2 = 0;
+        for (int i = 0; i < opCount; i++) {
+            intStack.push(i);
+            if (intStack.getSize() == depth) {
+                while (!intStack.isEmpty()) {
+                    sum2 += intStack.pop();
+                }
+            }
+        }
+        endTime = System.nanoTime();
+        endBytes = allocatedBytes();
+        System.out.println("IntStack, time: " + (endTime - startTime) / 1_000_000_000.0 + "s, bytes/op: " + (double) (endBytes - startBytes) / opCount + ", " + (sum1 == sum2));
+    }
+
+    /**
+     * 当前线程到目前为止分配的字节数。
+     * 和 app.queue.Main 中的同名方法相同，每个包的 Main 都可以单独运行，所以各自保留一份，修改时两边保持一致。
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void test5() throws InterruptedException {
+        // 多个线程共享一个栈，对比加全局锁的 ArrayStack、LinkedListStack 和无锁的 TreiberStack 的吞吐量。
+        int opCount = 2_000_000;
+
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            double time1 = testConcurrentStack(new SynchronizedStack<>(new ArrayStack<>()), threads, opCount);
+            double time2 = testConcurrentStack(new SynchronizedStack<>(new LinkedListStack<>()), threads, opCount);
+            double time3 = testConcurrentStack(new TreiberStack<>(), threads, opCount);
+            System.out.println(threads + " threads, synchronized ArrayStack: " + (long) (opCount / time1) + " ops/s"
+                    + ", synchronized LinkedListStack: " + (long) (opCount / time2) + " ops/s"
+                    + ", TreiberStack: " + (long) (opCount / time3) + " ops/s");
+        }
+    }
+
+    /**
+     * threads 个线程同时交替地入栈、出栈，一共运行 opCount 个操作。
+     * 每个线程都是先入栈再出栈，所以出栈时栈不会为空。
+     * @return 所有线程完成所需要的时间，单位：秒
+     */
+    private static double testConcurrentStack(Stack<Integer> stack, int threads, int opCount) throws InterruptedException {
+        int pairs = opCount / threads / 2;
+        Integer element = 1;
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < pairs; i++) {
+                    stack.push(element);
+                    stack.pop();
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000_000.0;
+    }
+
+    /**
+     * 用一把全局的锁包装一个栈，每个操作都在锁中执行。
+     */
+    private static class SynchronizedStack<E> implements Stack<E> {
+        private final Stack<E> stack;
+
+        public SynchronizedStack(Stack<E> stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return stack.getSize();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return stack.isEmpty();
+        }
+
+        @Override
+        public synchronized void push(E e) {
+            stack.push(e);
+        }
+
+        @Override
+        public synchronized E pop() {
+            return stack.pop();
+        }
+
+        @Override
+        public synchronized E peek() {
+            return stack.peek();
+        }
+    }
+
+    private static void test6() {
+        // 模拟编辑器的撤销历史：每一步编辑之后保存一个快照。
+        // ArrayStack 需要复制整个栈，PersistentStack 只需要保存当前版本的引用。
+        int opCount = 5_000;
+
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+        ArrayStack<Integer> arrayStack = new ArrayStack<>();
+        ArrayStack<ArrayStack<Integer>> arraySnapshots = new ArrayStack<>();
+        for (int i = 0; i < opCount; i++) {
+            arrayStack.push(i);
+            arraySnapshots.push(copy(arrayStack));
+        }
+        long endTime = System.nanoTime();
+        long endBytes = allocatedBytes();
+        System.out.println("ArrayStack snapshots, time: " + (endTime - startTime) / 1_000_000_000.0 + "s, bytes: " + (endBytes - startBytes));
+
+        startBytes = allocatedBytes();
+        startTime = System.nanoTime();
+        PersistentStack<Integer> version = PersistentStack.empty();
+        ArrayStack<PersistentStack<Integer>> versions = new ArrayStack<>();
+        for (int i = 0; i < opCount; i++) {
+            version = version.push(i);
+            versions.push(version);
+        }
+        endTime = System.nanoTime();
+        endBytes = allocatedBytes();
+        System.out.println("PersistentStack versions, time: " + (endTime - startTime) / 1_000_000_000.0 + "s, bytes: " + (endBytes - startBytes));
+
+        // 撤销三步，回到之前的版本。
+        for (int i = 0; i < 3; i++) {
+            versions.pop();
+        }
+        System.out.println("after undo, top: " + versions.pop().peek() + ", latest top: " + version.peek());
+    }
+
+    /**
+     * 复制一个 ArrayStack：先全部出栈到一个临时的栈中，再依次入栈到原来的栈和副本中，复杂度 O(n)。
+     */
+    private static <E> ArrayStack<E> copy(ArrayStack<E> stack) {
+        ArrayStack<E> temp = new ArrayStack<>(stack.getSize());
+        while (!stack.isEmpty()) {
+            temp.push(stack.pop());
+        }
+
+        ArrayStack<E> res = new ArrayStack<>(temp.getSize());
+        while (!temp.isEmpty()) {
+            E e = temp.pop();
+            stack.push(e);
+            res.push(e);
+        }
+        return res;
+    }
+}
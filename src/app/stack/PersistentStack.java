@@ -0,0 +1,102 @@
+package app.stack;
+
+/**
+ * PersistentStack
+ * 可持久化（不可变）的栈。
+ *
+ * 编辑器的撤销功能需要保存每一步操作之后的状态，如果每一步都把 ArrayStack 或者 LinkedListStack 复制一份，每次复制都是 O(n) 的。
+ *
+ * PersistentStack 是一个不可变的链表，每个栈对象就是栈顶节点：
+ * push 创建一个新的栈顶节点，它的 next 指向原来的栈；pop 直接返回原来的栈顶节点的 next。
+ * 原来的栈不会被修改，所以新旧两个版本共享了除新栈顶以外的所有节点：
+ *
+ *   v1 = empty().push(a).push(b)        v1: b -> a -> NULL
+ *   v2 = v1.push(c)                     v2: c -> b -> a -> NULL   （b -> a 和 v1 共享）
+ *   v3 = v1.pop()                       v3: a -> NULL              （就是 v1 中的节点 a）
+ *
+ * 保存一个版本只需要保存一个引用，是 O(1) 的；同时存在的多个版本占用的内存只和它们不同的部分成正比。
+ * 因为不可变，多个线程可以不加锁地共享同一个版本。
+ *
+ * 这个栈中的方法复杂度：
+ * PersistentStack<E> push(E)   O(1)
+ * PersistentStack<E> pop()     O(1)
+ * E peek()                     O(1)
+ * int getSize()                O(1)
+ * boolean isEmpty()            O(1)
+ *
+ * 由于 push 和 pop 返回新的版本，而不是修改当前的栈，PersistentStack 没有实现 Stack 接口。
+ */
+public final class PersistentStack<E> {
+
+    private static final PersistentStack<Object> EMPTY = new PersistentStack<>(null, null, 0);
+
+    private final E e;
+    private final PersistentStack<E> next;
+    private final int size;
+
+    private PersistentStack(E e, PersistentStack<E> next, int size) {
+        this.e = e;
+        this.next = next;
+        this.size = size;
+    }
+
+    /**
+     * 空栈，所有的空栈都是同一个对象。
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentStack<E> empty() {
+        return (PersistentStack<E>) EMPTY;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 入栈。
+     * @param e
+     * @return e 入栈之后的新版本，当前版本不变。
+     */
+    public PersistentStack<E> push(E e) {
+        return new PersistentStack<>(e, this, size + 1);
+    }
+
+    /**
+     * 出栈。
+     * @return 去掉栈顶元素之后的版本，当前版本不变。
+     */
+    public PersistentStack<E> pop() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Pop failed. Stack is empty.");
+        }
+        return next;
+    }
+
+    /**
+     * 查看栈顶元素。
+     */
+    public E peek() {
+        if (size == 0) {
+            throw new IllegalArgumentException("Peek failed. Stack is empty.");
+        }
+        return e;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append("Stack: top ");
+
+        for (PersistentStack<E> cur = this; cur.size > 0; cur = cur.next) {
+            res.append(cur.e + "->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}
@@ -0,0 +1,203 @@
+package app.stack;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+/**
+ * TreiberStack
+ * 无锁的并发栈（Treiber 栈），带有消除（elimination）数组。
+ *
+ * 多个线程共享一个栈时，给 ArrayStack 加一把全局的锁，所有的 push 和 pop 都要排队，线程再多吞吐量也和单线程一样。
+ *
+ * Treiber 栈是一个链表，栈顶是一个 AtomicReference：
+ * push 把新节点的 next 指向当前栈顶，再 CAS 把栈顶改为新节点；pop CAS 把栈顶改为栈顶的下一个节点。
+ * CAS 失败说明有其他线程修改了栈顶，重试即可。
+ *
+ * 但是所有线程仍然在争抢同一个栈顶，竞争激烈时大部分 CAS 都会失败。
+ * 注意到一个 push 紧接着一个 pop，栈的状态不会改变，所以 CAS 失败的线程不立即重试，而是到消除数组中随机选一个位置等待一小会儿：
+ * 如果一个 push 和一个 pop 在同一个位置相遇，push 直接把元素交给 pop，两个操作都完成了，完全不需要访问栈顶。
+ * 没有相遇（或者遇到的是同类操作）时，再回去重试 CAS。
+ *
+ * 时间复杂度：
+ * void push(E)        O(1)
+ * E pop()             O(1)
+ * E peek()            O(1)
+ * int getSize()       O(1)
+ * boolean isEmpty()   O(1)
+ */
+public class TreiberStack<E> implements Stack<E> {
+
+    private static class Node<E> {
+        public final E e;
+        public Node<E> next;
+
+        public Node(E e) {
+            this.e = e;
+        }
+    }
+
+    // pop 在消除数组中交换的对象，表示「我是一个 pop」。
+    private static final Object POP = new Object();
+    // 在消除数组中没有成功交换。
+    private static final Object TIMEOUT = new Object();
+
+    // 交换位置的三种状态。
+    private static final int EMPTY = 0;
+    private static final int WAITING = 1;
+    private static final int BUSY = 2;
+
+    // 在一个交换位置上最多等待的次数。
+    private static final int SPINS = 128;
+
+    private final AtomicReference<Node<E>> top;
+    private final AtomicInteger size;
+    // 消除数组，每个位置是一个交换器：元素和状态可以同时被 CAS 修改。
+    private final AtomicStampedReference<Object>[] slots;
+
+    /**
+     * 构造函数。
+     * @param eliminationSize 消除数组的大小，通常和参与竞争的线程数相当。
+     */
+    @SuppressWarnings("unchecked")
+    public TreiberStack(int eliminationSize) {
+        if (eliminationSize < 1) {
+            throw new IllegalArgumentException("Elimination size must be positive.");
+        }
+
+        top = new AtomicReference<>();
+        size = new AtomicInteger();
+        slots = (AtomicStampedReference<Object>[]) new AtomicStampedReference<?>[eliminationSize];
+        for (int i = 0; i < eliminationSize; i++) {
+            slots[i] = new AtomicStampedReference<>(null, EMPTY);
+        }
+    }
+
+    /**
+     * 默认消除数组的大小为 CPU 核数的一半。
+     */
+    public TreiberStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * 栈的元素个数。其他线程同时在修改时，只是某一时刻的近似值。
+     */
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    @Override
+    public void push(E e) {
+        Node<E> node = new Node<>(e);
+        while (true) {
+            Node<E> oldTop = top.get();
+            node.next = oldTop;
+            if (top.compareAndSet(oldTop, node)) {
+                size.incrementAndGet();
+                return;
+            }
+
+            // CAS 失败，到消除数组中找一个 pop。
+            if (exchange(e) == POP) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        while (true) {
+            Node<E> oldTop = top.get();
+            if (oldTop == null) {
+                throw new IllegalArgumentException("Pop failed. Stack is empty.");
+            }
+            if (top.compareAndSet(oldTop, oldTop.next)) {
+                size.decrementAndGet();
+                return oldTop.e;
+            }
+
+            // CAS 失败，到消除数组中找一个 push。
+            Object other = exchange(POP);
+            if (other != POP && other != TIMEOUT) {
+                return (E) other;
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        Node<E> t = top.get();
+        if (t == null) {
+            throw new IllegalArgumentException("Peek failed. Stack is empty.");
+        }
+        return t.e;
+    }
+
+    /**
+     * 在消除数组的一个随机位置上，和另一个线程交换 item。
+     * 位置为 EMPTY 时放入 item 并等待，状态变为 WAITING；遇到 WAITING 的位置，取走对方的 item 并放入自己的，状态变为 BUSY。
+     * 等待的一方看到 BUSY，就取走对方的 item 并把位置恢复为 EMPTY。
+     * @return 对方的 item，没有成功交换时返回 TIMEOUT。
+     */
+    private Object exchange(Object item) {
+        AtomicStampedReference<Object> slot = slots[ThreadLocalRandom.current().nextInt(slots.length)];
+        int[] stamp = new int[1];
+
+        for (int i = 0; i < SPINS; i++) {
+            Object other = slot.get(stamp);
+            switch (stamp[0]) {
+                case EMPTY:
+                    if (slot.compareAndSet(other, item, EMPTY, WAITING)) {
+                        for (int j = 0; j < SPINS; j++) {
+                            other = slot.get(stamp);
+                            if (stamp[0] == BUSY) {
+                                slot.set(null, EMPTY);
+                                return other;
+                            }
+                            Thread.onSpinWait();
+                        }
+                        // 等待超时，撤回自己的 item；撤回失败说明就在这时有线程来交换了。
+                        if (slot.compareAndSet(item, null, WAITING, EMPTY)) {
+                            return TIMEOUT;
+                        }
+                        other = slot.getReference();
+                        slot.set(null, EMPTY);
+                        return other;
+                    }
+                    break;
+                case WAITING:
+                    if (slot.compareAndSet(other, item, WAITING, BUSY)) {
+                        return other;
+                    }
+                    break;
+                default:
+                    // BUSY，这个位置上的两个线程正在完成交换。
+                    break;
+            }
+            Thread.onSpinWait();
+        }
+        return TIMEOUT;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        res.append("Stack: top ");
+
+        for (Node<E> cur = top.get(); cur != null; cur = cur.next) {
+            res.append(cur.e + "->");
+        }
+        res.append("NULL");
+
+        return res.toString();
+    }
+}